@@ -0,0 +1,190 @@
+package dubbo.mini.ThreadPool;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.support.NamedThreadFactory;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 每个任务一个虚拟线程，用信号量限制并发数，而不是线程数。
+ * <p>
+ * 适合业务大部分时间阻塞在下游 IO 上的 provider。JDK 不支持虚拟线程（21 以下）时退化为 cached 线程池，
+ * 并发上限不变。并发数达到上限时直接拒绝，不排队，由调用方返回 SERVER_THREADPOOL_EXHAUSTED_ERROR。
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+
+  public static final String NAME = "virtual";
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+
+  /**
+   * 拒绝日志的最小间隔，过载时不必每次拒绝都打一条
+   */
+  private static final long WARN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+  private final String name;
+
+  private final int maxConcurrency;
+
+  private final Semaphore permits;
+
+  /**
+   * 支持虚拟线程时为 null
+   */
+  private final ExecutorService fallback;
+
+  private final ThreadFactory factory;
+
+  private volatile boolean shutdown;
+
+  private final String exhaustedMessage;
+
+  /**
+   * 上次打印拒绝日志之后的拒绝次数
+   */
+  private final AtomicLong rejected = new AtomicLong();
+
+  private volatile long lastWarnTime;
+
+  public VirtualThreadExecutor(String name, NetURL url) {
+    this.name = name;
+    this.maxConcurrency = url.getPositiveParameter(Constants.VIRTUAL_CONCURRENCY_KEY,
+        Constants.DEFAULT_VIRTUAL_CONCURRENCY);
+    this.permits = new Semaphore(maxConcurrency);
+    this.exhaustedMessage = "Thread pool is EXHAUSTED! Thread Name: " + name + ", max concurrency: "
+        + maxConcurrency;
+    this.factory = virtualThreadFactory(name);
+    if (factory == null) {
+      logger.warn("Virtual threads are not supported by the current JVM "
+          + System.getProperty("java.version") + ", fallback to cached thread pool.");
+      this.fallback = Executors.newCachedThreadPool(new NamedThreadFactory(name, true));
+    } else {
+      this.fallback = null;
+    }
+  }
+
+  /**
+   * 通过反射调用 {@code Thread.ofVirtual().name(prefix, 1).factory()}，保持 Java 8 编译
+   */
+  static ThreadFactory virtualThreadFactory(String name) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, name + "-virtual-", 1L);
+      Method factory = builderClass.getMethod("factory");
+      return (ThreadFactory) factory.invoke(builder);
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  public boolean isVirtual() {
+    return factory != null;
+  }
+
+  /**
+   * 正在执行的任务数
+   */
+  public int getActiveCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor " + name + " has been shutdown");
+    }
+    if (!permits.tryAcquire()) {
+      warnRejected();
+      throw new RejectedExecutionException(exhaustedMessage);
+    }
+    Runnable task = () -> {
+      try {
+        command.run();
+      } finally {
+        permits.release();
+      }
+    };
+    try {
+      if (fallback != null) {
+        fallback.execute(task);
+      } else {
+        factory.newThread(task).start();
+      }
+    } catch (Throwable t) {
+      permits.release();
+      throw new RejectedExecutionException(t);
+    }
+  }
+
+  /**
+   * 每个间隔最多打印一次，带上这段时间内的拒绝次数
+   */
+  private void warnRejected() {
+    rejected.incrementAndGet();
+    long now = System.currentTimeMillis();
+    long last = lastWarnTime;
+    if (now - last < WARN_INTERVAL_MILLIS) {
+      return;
+    }
+    long count;
+    synchronized (rejected) {
+      if (lastWarnTime != last) {
+        return;
+      }
+      lastWarnTime = now;
+      count = rejected.getAndSet(0);
+    }
+    logger.warn(exhaustedMessage + ", " + count + " tasks rejected since last report");
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    if (fallback != null) {
+      fallback.shutdown();
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    if (fallback != null) {
+      return fallback.shutdownNow();
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && permits.availablePermits() == maxConcurrency;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    // 拿到全部许可说明所有任务都已结束
+    if (!permits.tryAcquire(maxConcurrency, timeout, unit)) {
+      return false;
+    }
+    permits.release(maxConcurrency);
+    return true;
+  }
+}
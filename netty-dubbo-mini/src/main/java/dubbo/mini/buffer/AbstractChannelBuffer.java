@@ -150,6 +150,26 @@ public abstract class AbstractChannelBuffer implements ChannelBuffer {
     dst.writerIndex(dst.writerIndex() + length);
   }
 
+  @Override
+  public void setShort(int index, int value) {
+    setByte(index, value >>> 8);
+    setByte(index + 1, value);
+  }
+
+  @Override
+  public void setInt(int index, int value) {
+    setByte(index, value >>> 24);
+    setByte(index + 1, value >>> 16);
+    setByte(index + 2, value >>> 8);
+    setByte(index + 3, value);
+  }
+
+  @Override
+  public void setLong(int index, long value) {
+    setInt(index, (int) (value >>> 32));
+    setInt(index + 4, (int) value);
+  }
+
   @Override
   public void setBytes(int index, byte[] src) {
     setBytes(index, src, 0, src.length);
@@ -303,6 +323,16 @@ public abstract class AbstractChannelBuffer implements ChannelBuffer {
     return copy(readerIndex, readableBytes());
   }
 
+  @Override
+  public ChannelBuffer retainedSlice(int index, int length) {
+    return copy(index, length);
+  }
+
+  @Override
+  public boolean release() {
+    return false;
+  }
+
   @Override
   public ByteBuffer toByteBuffer() {
     return toByteBuffer(readerIndex, readableBytes());
@@ -15,6 +15,20 @@ public interface ChannelBuffer extends Comparable<ChannelBuffer> {
 
   ChannelBuffer copy(int index, int length);
 
+  /**
+   * 与当前 buffer 共享内存的切片，引用计数加一，使用完后调用 {@link #release()}。
+   * <p>
+   * 不支持引用计数的实现返回拷贝。
+   */
+  ChannelBuffer retainedSlice(int index, int length);
+
+  /**
+   * 引用计数减一，不支持引用计数的实现什么也不做
+   *
+   * @return 是否已经释放
+   */
+  boolean release();
+
   void discardReadBytes();
 
 
@@ -84,6 +98,12 @@ public interface ChannelBuffer extends Comparable<ChannelBuffer> {
 
   void setByte(int index, int value);
 
+  void setShort(int index, int value);
+
+  void setInt(int index, int value);
+
+  void setLong(int index, long value);
+
   void setBytes(int index, byte[] src);
 
   void setBytes(int index, byte[] src, int srcIndex, int length);
@@ -6,15 +6,23 @@ import java.io.OutputStream;
 
 public class ChannelBufferOutputStream extends OutputStream {
 
-  private final ChannelBuffer buffer;
-  private final int startIndex;
+  private ChannelBuffer buffer;
+  private int startIndex;
 
   public ChannelBufferOutputStream(ChannelBuffer buffer) {
+    reset(buffer);
+  }
+
+  /**
+   * 重新绑定到 buffer，从当前写位置开始统计，便于按线程复用。
+   */
+  public ChannelBufferOutputStream reset(ChannelBuffer buffer) {
     if (buffer == null) {
       throw new NullPointerException("buffer");
     }
     this.buffer = buffer;
     startIndex = buffer.writerIndex();
+    return this;
   }
 
   public int writtenBytes() {
@@ -44,6 +44,16 @@ public class NettyBackedChannelBuffer implements ChannelBuffer {
     return new NettyBackedChannelBuffer(buffer.copy(index, length));
   }
 
+  @Override
+  public ChannelBuffer retainedSlice(int index, int length) {
+    return new NettyBackedChannelBuffer(buffer.retainedSlice(index, length));
+  }
+
+  @Override
+  public boolean release() {
+    return buffer.release();
+  }
+
   //has nothing use
   @Override
   public ChannelBufferFactory factory() {
@@ -96,6 +106,24 @@ public class NettyBackedChannelBuffer implements ChannelBuffer {
   }
 
 
+  @Override
+  public void setShort(int index, int value) {
+    buffer.setShort(index, value);
+  }
+
+
+  @Override
+  public void setInt(int index, int value) {
+    buffer.setInt(index, value);
+  }
+
+
+  @Override
+  public void setLong(int index, long value) {
+    buffer.setLong(index, value);
+  }
+
+
   @Override
   public void setBytes(int index, byte[] src, int srcIndex, int length) {
     buffer.setBytes(index, src, srcIndex, length);
@@ -10,11 +10,22 @@ public class ChannelBufferInputStream extends InputStream {
   private final int startIndex;
   private final int endIndex;
 
+  /**
+   * close 时是否释放 buffer，用于持有保留切片的流
+   */
+  private final boolean releaseOnClose;
+
+  private boolean closed;
+
   public ChannelBufferInputStream(ChannelBuffer buffer) {
     this(buffer, buffer.readableBytes());
   }
 
   public ChannelBufferInputStream(ChannelBuffer buffer, int length) {
+    this(buffer, length, false);
+  }
+
+  public ChannelBufferInputStream(ChannelBuffer buffer, int length, boolean releaseOnClose) {
     if (buffer == null) {
       throw new NullPointerException("buffer");
     }
@@ -26,6 +37,7 @@ public class ChannelBufferInputStream extends InputStream {
     }
 
     this.buffer = buffer;
+    this.releaseOnClose = releaseOnClose;
     startIndex = buffer.readerIndex();
     endIndex = startIndex + length;
     buffer.markReaderIndex();
@@ -35,6 +47,26 @@ public class ChannelBufferInputStream extends InputStream {
     return buffer.readerIndex() - startIndex;
   }
 
+  /**
+   * 把剩余的数据包装成一个新的流，与当前 buffer 共享内存（引用计数加一），当前流的读取位置移到末尾。
+   * <p>
+   * 用于把消息体的解码推迟到业务线程，而不拷贝一份 byte[]。返回的流在 close 时释放切片。
+   */
+  public ChannelBufferInputStream retainRemaining() throws IOException {
+    int length = available();
+    ChannelBuffer slice = buffer.retainedSlice(buffer.readerIndex(), length);
+    buffer.skipBytes(length);
+    return new ChannelBufferInputStream(slice, length, true);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (releaseOnClose && !closed) {
+      closed = true;
+      buffer.release();
+    }
+  }
+
   @Override
   public int available() throws IOException {
     return endIndex - buffer.readerIndex();
@@ -1,5 +1,6 @@
 package dubbo.mini.codec;
 
+import dubbo.mini.codec.compress.Compressor;
 import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
 import dubbo.mini.serialize.ObjectInput;
@@ -9,14 +10,48 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author why
  */
 public class CodecSupport {
 
+  private static final Logger logger = LoggerFactory.getLogger(CodecSupport.class);
   private static Map<Byte, Serialization> ID_SERIALIZATION_MAP = new HashMap<Byte, Serialization>();
   private static Map<Byte, String> ID_SERIALIZATIONNAME_MAP = new HashMap<Byte, String>();
+  private static Map<Byte, Compressor> ID_COMPRESSOR_MAP = new HashMap<Byte, Compressor>();
+
+  static {
+    ExtensionLoader<Serialization> loader = ExtensionLoader.getExtensionLoader(Serialization.class);
+    for (String name : loader.getSupportedExtensions()) {
+      Serialization serialization = loader.getExtension(name);
+      byte idByte = serialization.getContentTypeId();
+      if (ID_SERIALIZATION_MAP.containsKey(idByte)) {
+        logger.error("Serialization extension " + serialization.getClass().getName()
+            + " has duplicate id to Serialization extension "
+            + ID_SERIALIZATION_MAP.get(idByte).getClass().getName()
+            + ", ignore this Serialization extension");
+        continue;
+      }
+      ID_SERIALIZATION_MAP.put(idByte, serialization);
+      ID_SERIALIZATIONNAME_MAP.put(idByte, name);
+    }
+
+    ExtensionLoader<Compressor> compressors = ExtensionLoader.getExtensionLoader(Compressor.class);
+    for (String name : compressors.getSupportedExtensions()) {
+      Compressor compressor = compressors.getExtension(name);
+      if (ID_COMPRESSOR_MAP.containsKey(compressor.getId())) {
+        logger.error("Compressor extension " + compressor.getClass().getName()
+            + " has duplicate id to Compressor extension "
+            + ID_COMPRESSOR_MAP.get(compressor.getId()).getClass().getName()
+            + ", ignore this Compressor extension");
+        continue;
+      }
+      ID_COMPRESSOR_MAP.put(compressor.getId(), compressor);
+    }
+  }
 
   public static Serialization getSerialization(NetURL url) {
     return ExtensionLoader.getExtensionLoader(Serialization.class).getExtension(
@@ -48,4 +83,19 @@ public class CodecSupport {
   public static Serialization getSerializationById(Byte id) {
     return ID_SERIALIZATION_MAP.get(id);
   }
+
+  /**
+   * 发送端配置的压缩算法，没有配置时返回 null
+   */
+  public static Compressor getCompressor(NetURL url) {
+    String name = url.getParameter(Constants.COMPRESSOR_KEY);
+    if (name == null || name.isEmpty()) {
+      return null;
+    }
+    return ExtensionLoader.getExtensionLoader(Compressor.class).getExtension(name);
+  }
+
+  public static Compressor getCompressorById(byte id) {
+    return ID_COMPRESSOR_MAP.get(id);
+  }
 }
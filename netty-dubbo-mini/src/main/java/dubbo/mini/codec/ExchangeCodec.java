@@ -2,9 +2,14 @@ package dubbo.mini.codec;
 
 import dubbo.mini.buffer.ChannelBuffer;
 import dubbo.mini.buffer.ChannelBufferOutputStream;
+import dubbo.mini.buffer.NettyBackedChannelBuffer;
+import dubbo.mini.codec.compress.Compressor;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
 import dubbo.mini.common.io.Bytes;
 import dubbo.mini.common.io.StreamUtils;
 import dubbo.mini.common.utils.StringUtils;
+import dubbo.mini.exchange.EventFrame;
 import dubbo.mini.exchange.Request;
 import dubbo.mini.exchange.Response;
 import dubbo.mini.remote.NetChannel;
@@ -14,6 +19,9 @@ import dubbo.mini.serialize.ObjectInput;
 import dubbo.mini.serialize.ObjectOutput;
 import dubbo.mini.serialize.Serialization;
 import dubbo.mini.support.DefaultFuture;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import java.io.IOException;
 import java.io.InputStream;
 import org.slf4j.Logger;
@@ -32,7 +40,24 @@ public class ExchangeCodec extends TelnetCodec {
   protected static final byte FLAG_TWOWAY = (byte) 0x40;
   protected static final byte FLAG_EVENT = (byte) 0x20;
   protected static final int SERIALIZATION_MASK = 0x1f;
+  // status 的取值都小于 128，最高位用来标记消息体已压缩。
+  protected static final byte FLAG_COMPRESSED = (byte) 0x80;
+  // 压缩后的消息体前缀：compressor id(1) + 原始长度(4)。
+  private static final int COMPRESS_HEADER_LENGTH = 5;
+  // 只有 Header 的事件帧：event 标记 + body 长度为 0，请求用 status 字节区分事件类型。
+  private static final byte EVENT_HEARTBEAT = 0;
+  private static final byte EVENT_READONLY = 1;
+  // 按 EventFrame#ordinal() 预先算好的 Header
+  private static final byte[][] EVENT_FRAMES = {
+      eventHeader((byte) (FLAG_REQUEST | FLAG_TWOWAY | FLAG_EVENT), EVENT_HEARTBEAT),
+      eventHeader(FLAG_EVENT, Response.OK),
+      eventHeader((byte) (FLAG_REQUEST | FLAG_EVENT), EVENT_READONLY)
+  };
   private static final Logger logger = LoggerFactory.getLogger(ExchangeCodec.class);
+  /**
+   * 每个线程（通常就是 event loop）缓存一个 Body 输出流，逐条消息重新绑定
+   */
+  private static final ThreadLocal<ChannelBufferOutputStream> OUTPUT_STREAMS = new ThreadLocal<>();
 
   public Short getMagicCode() {
     return MAGIC;
@@ -40,8 +65,12 @@ public class ExchangeCodec extends TelnetCodec {
 
   @Override
   public void encode(NetChannel channel, ChannelBuffer buffer, Object msg) throws IOException {
+    // 事件帧，只写 Header
+    if (msg instanceof EventFrame) {
+      encodeEventFrame(buffer, (EventFrame) msg, 0L);
+    }
     // 请求
-    if (msg instanceof Request) {
+    else if (msg instanceof Request) {
       encodeRequest(channel, buffer, (Request) msg);
     }
     // 响应
@@ -113,8 +142,23 @@ public class ExchangeCodec extends TelnetCodec {
     // 解析 Header + Body
     // 调用 #decodeBody(channel, is, header) 方法，解析 Header + Body ，根据情况，返回 Request 或 Reponse 。
     // 🙂 逻辑上，是 #encodeRequest(...) 和 #encodeResponse(...) 方法的反向，所以，胖友就自己看啦。
+    // 只有 Header 的事件帧，不创建 Request / Response，也不反序列化
+    if (len == 0 && (header[2] & FLAG_EVENT) != 0) {
+      return decodeEventFrame(header);
+    }
+
     // limit input stream.
-    ChannelBufferInputStream is = new ChannelBufferInputStream(buffer, len);
+    ChannelBuffer decompressed = null;
+    ChannelBufferInputStream is;
+    if ((header[3] & FLAG_COMPRESSED) != 0) {
+      // 去掉压缩标记，decodeBody 看到的是原始的 status
+      header[3] &= ~FLAG_COMPRESSED;
+      decompressed = decompressBody(channel, buffer, len);
+      // 解压出来的 buffer 只由这里释放，Decodeable 关闭流时不释放；延迟解码保留的切片另有引用
+      is = new ChannelBufferInputStream(decompressed, decompressed.readableBytes());
+    } else {
+      is = new ChannelBufferInputStream(buffer, len);
+    }
     try {
       return decodeBody(channel, is, header);
     } finally {
@@ -129,6 +173,9 @@ public class ExchangeCodec extends TelnetCodec {
           logger.warn(e.getMessage(), e);
         }
       }
+      if (decompressed != null) {
+        decompressed.release();
+      }
     }
   }
 
@@ -148,18 +195,24 @@ public class ExchangeCodec extends TelnetCodec {
       res.setStatus(status);
       try {
         ObjectInput in = CodecSupport.deserialize(channel.getUrl(), is, proto);
-        if (status == Response.OK) {
-          Object data;
-          if (res.isHeartbeat()) {
-            data = decodeHeartbeatData(channel, in);
-          } else if (res.isEvent()) {
-            data = decodeEventData(channel, in);
+        try {
+          if (status == Response.OK) {
+            Object data;
+            if (res.isHeartbeat()) {
+              data = decodeHeartbeatData(channel, in);
+            } else if (res.isEvent()) {
+              data = decodeEventData(channel, in);
+            } else {
+              data = decodeResponseData(channel, in, getRequestData(channel, id));
+            }
+            res.setResult(data);
           } else {
-            data = decodeResponseData(channel, in, getRequestData(id));
+            res.setErrorMessage(in.readUTF());
+          }
+        } finally {
+          if (in instanceof Cleanable) {
+            ((Cleanable) in).cleanup();
           }
-          res.setResult(data);
-        } else {
-          res.setErrorMessage(in.readUTF());
         }
       } catch (Throwable t) {
         res.setStatus(Response.CLIENT_ERROR);
@@ -169,21 +222,28 @@ public class ExchangeCodec extends TelnetCodec {
     } else {
       // decode request.
       Request req = new Request(id);
+      req.setArriveTime(System.nanoTime());
       req.setTwoWay((flag & FLAG_TWOWAY) != 0);
       if ((flag & FLAG_EVENT) != 0) {
         req.setEvent(true);
       }
       try {
         ObjectInput in = CodecSupport.deserialize(channel.getUrl(), is, proto);
-        Object data;
-        if (req.isHeartbeat()) {
-          data = decodeHeartbeatData(channel, in);
-        } else if (req.isEvent()) {
-          data = decodeEventData(channel, in);
-        } else {
-          data = decodeRequestData(channel, in);
+        try {
+          Object data;
+          if (req.isHeartbeat()) {
+            data = decodeHeartbeatData(channel, in);
+          } else if (req.isEvent()) {
+            data = decodeEventData(channel, in);
+          } else {
+            data = decodeRequestData(channel, in);
+          }
+          req.setData(data);
+        } finally {
+          if (in instanceof Cleanable) {
+            ((Cleanable) in).cleanup();
+          }
         }
-        req.setData(data);
       } catch (Throwable t) {
         // bad request
         req.setBroken(true);
@@ -193,8 +253,8 @@ public class ExchangeCodec extends TelnetCodec {
     }
   }
 
-  protected Object getRequestData(long id) {
-    DefaultFuture future = DefaultFuture.getFuture(id);
+  protected Object getRequestData(NetChannel channel, long id) {
+    DefaultFuture future = DefaultFuture.getFuture(channel, id);
     if (future == null) {
       return null;
     }
@@ -207,35 +267,36 @@ public class ExchangeCodec extends TelnetCodec {
 
   private void encodeRequest(NetChannel channel, ChannelBuffer buffer, Request req)
       throws IOException {
+    if (req.isEvent()) {
+      if (req.isHeartbeat() && req.isTwoWay()) {
+        encodeEventFrame(buffer, EventFrame.HEARTBEAT_REQUEST, req.getId());
+        return;
+      }
+      if (Request.READONLY_EVENT.equals(req.getData())) {
+        encodeEventFrame(buffer, EventFrame.READONLY, req.getId());
+        return;
+      }
+    }
     Serialization serialization = getSerialization(channel);
-    // `[0, 15]`：Magic Number
-    // header.
-    byte[] header = new byte[HEADER_LENGTH];
-    // set magic number.
-    Bytes.short2bytes(MAGIC, header);
-
     // `[16, 20]`：Serialization 编号 && `[23]`：请求。
     // set request and serialization flag.
-    header[2] = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
+    byte flag = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
 
     // `[22]`：`twoWay` 是否需要响应。
     if (req.isTwoWay()) {
-      header[2] |= FLAG_TWOWAY;
+      flag |= FLAG_TWOWAY;
     }
     // `[21]`：`event` 是否为事件。
     if (req.isEvent()) {
-      header[2] |= FLAG_EVENT;
+      flag |= FLAG_EVENT;
     }
 
-    // `[32 - 95]`：`id` 编号，Long 型。
-    // set request id.
-    Bytes.long2bytes(req.getId(), header, 4);
-
-    // 编码 `Request.data` 到 Body ，并写入到 Buffer
+    // 预留 Header 的位置，Body 直接序列化到目标 Buffer 中。
     // encode request data.
     int savedWriteIndex = buffer.writerIndex();
+    buffer.ensureWritableBytes(HEADER_LENGTH);
     buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
-    ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
+    ChannelBufferOutputStream bos = borrowOutputStream(buffer);
     ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
     if (req.isEvent()) {
       encodeEventData(channel, out, req.getData());
@@ -252,43 +313,39 @@ public class ExchangeCodec extends TelnetCodec {
     bos.close();
     // 检查 Body 长度，是否超过消息上限。
     int len = bos.writtenBytes();
+    returnOutputStream(bos);
     // 会调用 #checkPayload(channel, len) 方法，校验 Body 内容的长度。笔者在这块纠结了很久，
     // 如果过长而抛出 ExceedPayloadLimitException 异常，那么 ChannelBuffer 是否重置下写入位置。
     // 后来发现自己煞笔了，每次 ChannelBuffer 都是新创建的，所以无需重置。
     // 为什么 Buffer 先写入了 Body ，再写入 Header 呢？因为 Header 中，里面 [96 - 127] 的 Body 长度，需要序列化后才得到。
     checkPayload(channel, len);
-    // `[96 - 127]`：Body 的**长度**。
-    Bytes.int2bytes(len, header, 12);
+    int bodyLength = compressBody(channel, buffer, savedWriteIndex + HEADER_LENGTH, len);
 
-    // 写入 Header 到 Buffer
-    // write
-    buffer.writerIndex(savedWriteIndex);
-    buffer.writeBytes(header); // write header.
-    buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
+    // 直接回填 Header 到预留的位置，不再经过 byte[] header 中转。
+    writeHeader(buffer, savedWriteIndex, flag, bodyLength < len ? FLAG_COMPRESSED : 0,
+        req.getId(), bodyLength);
   }
 
   protected void encodeResponse(NetChannel channel, ChannelBuffer buffer, Response res)
       throws IOException {
+    if (res.isHeartbeat() && res.getStatus() == Response.OK) {
+      encodeEventFrame(buffer, EventFrame.HEARTBEAT_RESPONSE, res.getId());
+      return;
+    }
     int savedWriteIndex = buffer.writerIndex();
     try {
       Serialization serialization = getSerialization(channel);
-      // header.
-      byte[] header = new byte[HEADER_LENGTH];
-      // set magic number.
-      Bytes.short2bytes(MAGIC, header);
       // set request and serialization flag.
-      header[2] = serialization.getContentTypeId();
+      byte flag = serialization.getContentTypeId();
       if (res.isHeartbeat()) {
-        header[2] |= FLAG_EVENT;
+        flag |= FLAG_EVENT;
       }
       // set response status.
       byte status = res.getStatus();
-      header[3] = status;
-      // set request id.
-      Bytes.long2bytes(res.getId(), header, 4);
 
+      buffer.ensureWritableBytes(HEADER_LENGTH);
       buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
-      ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
+      ChannelBufferOutputStream bos = borrowOutputStream(buffer);
       ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
       // encode response data or error message.
       if (status == Response.OK) {
@@ -308,12 +365,14 @@ public class ExchangeCodec extends TelnetCodec {
       bos.close();
 
       int len = bos.writtenBytes();
+      returnOutputStream(bos);
       checkPayload(channel, len);
-      Bytes.int2bytes(len, header, 12);
-      // write
-      buffer.writerIndex(savedWriteIndex);
-      buffer.writeBytes(header); // write header.
-      buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
+      int bodyLength = compressBody(channel, buffer, savedWriteIndex + HEADER_LENGTH, len);
+      if (bodyLength < len) {
+        status |= FLAG_COMPRESSED;
+      }
+      // write header.
+      writeHeader(buffer, savedWriteIndex, flag, status, res.getId(), bodyLength);
     } catch (Throwable t) {
       // clear buffer
       buffer.writerIndex(savedWriteIndex);
@@ -362,6 +421,138 @@ public class ExchangeCodec extends TelnetCodec {
     }
   }
 
+  private static byte[] eventHeader(byte flag, byte status) {
+    byte[] header = new byte[HEADER_LENGTH];
+    Bytes.short2bytes(MAGIC, header);
+    header[2] = flag;
+    header[3] = status;
+    return header;
+  }
+
+  private static void encodeEventFrame(ChannelBuffer buffer, EventFrame frame, long id) {
+    int index = buffer.writerIndex();
+    buffer.writeBytes(EVENT_FRAMES[frame.ordinal()]);
+    if (id != 0) {
+      buffer.setLong(index + 4, id);
+    }
+  }
+
+  /**
+   * 未知的事件类型按心跳响应处理，由 HeartbeatHandler 直接忽略
+   */
+  private static EventFrame decodeEventFrame(byte[] header) {
+    if ((header[2] & FLAG_REQUEST) != 0) {
+      if (header[3] == EVENT_HEARTBEAT) {
+        return EventFrame.HEARTBEAT_REQUEST;
+      }
+      if (header[3] == EVENT_READONLY) {
+        return EventFrame.READONLY;
+      }
+    }
+    return EventFrame.HEARTBEAT_RESPONSE;
+  }
+
+  /**
+   * 消息体超过阈值且配置了 compressor 时，原地替换为压缩后的内容：compressor id(1) + 原始长度(4) + 数据。
+   * 压缩后没有变小则保持原样。
+   *
+   * @return 写出的消息体长度，小于 {@code len} 表示已压缩
+   */
+  private int compressBody(NetChannel channel, ChannelBuffer buffer, int bodyIndex, int len)
+      throws IOException {
+    NetURL url = channel.getUrl();
+    if (len < url.getPositiveParameter(Constants.COMPRESS_THRESHOLD_KEY,
+        Constants.DEFAULT_COMPRESS_THRESHOLD)) {
+      return len;
+    }
+    Compressor compressor = CodecSupport.getCompressor(url);
+    if (compressor == null) {
+      return len;
+    }
+    ByteBuf body = Unpooled.wrappedBuffer(buffer.toByteBuffer(bodyIndex, len));
+    ByteBuf compressed = PooledByteBufAllocator.DEFAULT.heapBuffer(len >>> 1);
+    try {
+      compressor.compress(url, body, compressed);
+      int bodyLength = COMPRESS_HEADER_LENGTH + compressed.readableBytes();
+      if (bodyLength >= len) {
+        return len;
+      }
+      buffer.setByte(bodyIndex, compressor.getId());
+      buffer.setInt(bodyIndex + 1, len);
+      buffer.writerIndex(bodyIndex + COMPRESS_HEADER_LENGTH);
+      buffer.writeBytes(compressed.nioBuffer());
+      return bodyLength;
+    } finally {
+      compressed.release();
+    }
+  }
+
+  /**
+   * 解压 {@code len} 字节的消息体，返回的 buffer 由调用方释放。
+   */
+  private ChannelBuffer decompressBody(NetChannel channel, ChannelBuffer buffer,
+      int len) throws IOException {
+    int endIndex = buffer.readerIndex() + len;
+    try {
+      if (len < COMPRESS_HEADER_LENGTH) {
+        throw new IOException("Compressed body too short: " + len);
+      }
+      ByteBuf in = Unpooled.wrappedBuffer(buffer.toByteBuffer(buffer.readerIndex(), len));
+      byte id = in.readByte();
+      int originalLength = in.readInt();
+      // 按原始长度校验，防止压缩炸弹
+      checkPayload(channel, originalLength);
+      Compressor compressor = CodecSupport.getCompressorById(id);
+      if (compressor == null) {
+        throw new IOException("Unexpected compressor id:" + id
+            + " received from network, please check if the peer send the right id.");
+      }
+      ByteBuf out = PooledByteBufAllocator.DEFAULT.heapBuffer(originalLength, originalLength);
+      try {
+        compressor.decompress(in, out);
+        if (out.readableBytes() != originalLength) {
+          throw new IOException("Decompressed length " + out.readableBytes()
+              + " does not match " + originalLength);
+        }
+      } catch (IOException | RuntimeException e) {
+        out.release();
+        throw e;
+      }
+      return new NettyBackedChannelBuffer(out);
+    } finally {
+      // 无论成功与否都跳过整个消息体，不影响后续消息
+      buffer.readerIndex(endIndex);
+    }
+  }
+
+  /**
+   * 取当前线程缓存的输出流并绑定到 buffer。编码中途异常时不归还，下次重新创建即可。
+   */
+  private static ChannelBufferOutputStream borrowOutputStream(ChannelBuffer buffer) {
+    ChannelBufferOutputStream bos = OUTPUT_STREAMS.get();
+    if (bos == null) {
+      return new ChannelBufferOutputStream(buffer);
+    }
+    OUTPUT_STREAMS.set(null);
+    return bos.reset(buffer);
+  }
+
+  private static void returnOutputStream(ChannelBufferOutputStream bos) {
+    OUTPUT_STREAMS.set(bos);
+  }
+
+  /**
+   * 在 {@code index} 处回填 16 字节的 Header：magic(2) + flag(1) + status(1) + id(8) + body length(4)。
+   */
+  protected static void writeHeader(ChannelBuffer buffer, int index, byte flag, byte status,
+      long id, int len) {
+    buffer.setShort(index, MAGIC);
+    buffer.setByte(index + 2, flag);
+    buffer.setByte(index + 3, status);
+    buffer.setLong(index + 4, id);
+    buffer.setInt(index + 12, len);
+  }
+
   @Override
   protected Object decodeData(ObjectInput in) throws IOException {
     return decodeRequestData(in);
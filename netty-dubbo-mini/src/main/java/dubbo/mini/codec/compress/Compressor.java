@@ -0,0 +1,29 @@
+package dubbo.mini.codec.compress;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.support.SPI;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+
+/**
+ * 消息体压缩。id 随消息体一起发送，对端按 id 选择解压算法，不需要额外配置。
+ */
+@SPI("snappy")
+public interface Compressor {
+
+  /**
+   * 算法 id，写在压缩后消息体的第一个字节
+   */
+  byte getId();
+
+  /**
+   * 压缩 in 的全部可读字节，写入 out
+   */
+  void compress(NetURL url, ByteBuf in, ByteBuf out) throws IOException;
+
+  /**
+   * 解压 in 的全部可读字节，写入 out，out 的容量上限即原始长度
+   */
+  void decompress(ByteBuf in, ByteBuf out) throws IOException;
+
+}
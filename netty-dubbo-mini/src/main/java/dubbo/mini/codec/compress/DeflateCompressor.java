@@ -0,0 +1,102 @@
+package dubbo.mini.codec.compress;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 基于 JDK Deflater 的压缩，不依赖第三方库，压缩率比 snappy 高、速度慢。
+ * <p>
+ * Deflater / Inflater 和分段用的 byte[] 每个线程一份，逐条消息 reset 后复用，
+ * 不像 {@code Bytes.zip} 那样为整个消息体分配数组。
+ */
+public class DeflateCompressor implements Compressor {
+
+  public static final byte ID = 2;
+
+  private static final int CHUNK_SIZE = 8 * 1024;
+
+  private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+  @Override
+  public byte getId() {
+    return ID;
+  }
+
+  @Override
+  public void compress(NetURL url, ByteBuf in, ByteBuf out) throws IOException {
+    State state = STATE.get();
+    Deflater deflater = state.deflater;
+    deflater.reset();
+    deflater.setLevel(url.getParameter(Constants.COMPRESS_LEVEL_KEY, Deflater.BEST_SPEED));
+    if (in.hasArray()) {
+      deflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), in.readableBytes());
+      in.skipBytes(in.readableBytes());
+    } else {
+      while (in.isReadable()) {
+        int n = Math.min(in.readableBytes(), CHUNK_SIZE);
+        in.readBytes(state.input, 0, n);
+        deflater.setInput(state.input, 0, n);
+        while (!deflater.needsInput()) {
+          drain(deflater, state.output, out);
+        }
+      }
+    }
+    deflater.finish();
+    while (!deflater.finished()) {
+      drain(deflater, state.output, out);
+    }
+  }
+
+  @Override
+  public void decompress(ByteBuf in, ByteBuf out) throws IOException {
+    State state = STATE.get();
+    Inflater inflater = state.inflater;
+    inflater.reset();
+    try {
+      while (!inflater.finished()) {
+        if (inflater.needsInput()) {
+          if (!in.isReadable()) {
+            throw new IOException("Deflate stream truncated");
+          }
+          if (in.hasArray()) {
+            inflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), in.readableBytes());
+            in.skipBytes(in.readableBytes());
+          } else {
+            int n = Math.min(in.readableBytes(), CHUNK_SIZE);
+            in.readBytes(state.input, 0, n);
+            inflater.setInput(state.input, 0, n);
+          }
+        }
+        int n = inflater.inflate(state.output);
+        if (n == 0 && inflater.needsDictionary()) {
+          throw new IOException("Deflate stream requires a dictionary");
+        }
+        // 超过原始长度时 out 会抛 IndexOutOfBoundsException
+        out.writeBytes(state.output, 0, n);
+      }
+    } catch (DataFormatException | IndexOutOfBoundsException e) {
+      throw new IOException("Deflate decompress failed: " + e.getMessage(), e);
+    }
+  }
+
+  private static void drain(Deflater deflater, byte[] output, ByteBuf out) {
+    int n = deflater.deflate(output);
+    out.writeBytes(output, 0, n);
+  }
+
+  private static final class State {
+
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    final Inflater inflater = new Inflater();
+
+    final byte[] input = new byte[CHUNK_SIZE];
+
+    final byte[] output = new byte[CHUNK_SIZE];
+  }
+}
@@ -0,0 +1,46 @@
+package dubbo.mini.codec.compress;
+
+import dubbo.mini.common.NetURL;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.compression.Snappy;
+import java.io.IOException;
+
+/**
+ * 基于 Netty 自带的 Snappy 块压缩，直接读写 ByteBuf，不经过 byte[] 中转。
+ */
+public class SnappyCompressor implements Compressor {
+
+  public static final byte ID = 1;
+
+  /**
+   * Snappy 有解码状态，不是线程安全的，每个线程一个
+   */
+  private static final ThreadLocal<Snappy> SNAPPY = ThreadLocal.withInitial(Snappy::new);
+
+  @Override
+  public byte getId() {
+    return ID;
+  }
+
+  @Override
+  public void compress(NetURL url, ByteBuf in, ByteBuf out) throws IOException {
+    Snappy snappy = SNAPPY.get();
+    try {
+      snappy.encode(in, out, in.readableBytes());
+    } finally {
+      snappy.reset();
+    }
+  }
+
+  @Override
+  public void decompress(ByteBuf in, ByteBuf out) throws IOException {
+    Snappy snappy = SNAPPY.get();
+    try {
+      snappy.decode(in, out);
+    } catch (RuntimeException e) {
+      throw new IOException("Snappy decompress failed: " + e.getMessage(), e);
+    } finally {
+      snappy.reset();
+    }
+  }
+}
@@ -134,6 +134,43 @@ public class Constants {
 
   public static final int DEFAULT_QUEUES = 0;
 
+  /**
+   * serial 派发模式下，单个连接排队任务数的上限
+   */
+  public static final String SERIAL_QUEUES_KEY = "serial.queues";
+
+  public static final int DEFAULT_SERIAL_QUEUES = 1024;
+
+  /**
+   * 是否开启服务端自适应并发限制
+   */
+  public static final String ADAPTIVE_LIMITER_KEY = "adaptive.limiter";
+
+  /**
+   * 自适应并发上限的最大值
+   */
+  public static final String ADAPTIVE_MAX_LIMIT_KEY = "adaptive.limiter.max";
+
+  public static final int DEFAULT_ADAPTIVE_MAX_LIMIT = 1000;
+
+  /**
+   * 可接受的请求排队时间，毫秒。平滑后的排队时间超过该值时收缩并发上限
+   */
+  public static final String ADAPTIVE_QUEUE_TARGET_KEY = "adaptive.limiter.queue.target";
+
+  public static final int DEFAULT_ADAPTIVE_QUEUE_TARGET = 10;
+
+  /**
+   * 消费端收到过载响应后的退避时间，毫秒，连续过载时指数增长
+   */
+  public static final String OVERLOAD_BACKOFF_KEY = "overload.backoff";
+
+  public static final int DEFAULT_OVERLOAD_BACKOFF = 10;
+
+  public static final String OVERLOAD_MAX_BACKOFF_KEY = "overload.backoff.max";
+
+  public static final int DEFAULT_OVERLOAD_MAX_BACKOFF = 1000;
+
   public static final int DEFAULT_ALIVE = 60 * 1000;
 
   /**
@@ -145,6 +182,25 @@ public class Constants {
 
   public static final String SHARE_CONNECTIONS_KEY = "shareconnections";
 
+  /**
+   * 共享连接数的上限，大于 shareconnections 时，连接的在途请求达到窗口后自动增加连接，空闲后收缩
+   */
+  public static final String MAX_CONNECTIONS_KEY = "connections.max";
+
+  /**
+   * 单个连接的在途请求窗口
+   */
+  public static final String INFLIGHT_WINDOW_KEY = "inflight.window";
+
+  public static final int DEFAULT_INFLIGHT_WINDOW = 256;
+
+  /**
+   * 额外增加的连接空闲多久后关闭，单位毫秒
+   */
+  public static final String CONNECTION_IDLE_TIMEOUT_KEY = "connections.idle.timeout";
+
+  public static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 60 * 1000;
+
   public static final int DEFAULT_ACCEPTS = 0;
 
   public static final int DEFAULT_IDLE_TIMEOUT = 600 * 1000;
@@ -257,10 +313,53 @@ public class Constants {
 
   public static final String THREADPOOL_KEY = "threadpool";
 
+  /**
+   * threadpool=virtual 时，同时执行的任务数上限
+   */
+  public static final String VIRTUAL_CONCURRENCY_KEY = "virtual.concurrency";
+
+  public static final int DEFAULT_VIRTUAL_CONCURRENCY = 10000;
+
   public static final String THREAD_NAME_KEY = "threadname";
 
   public static final String IO_THREADS_KEY = "iothreads";
 
+  /**
+   * Netty 传输实现：auto 在 Linux 上优先使用 epoll；epoll 不可用时告警并退回 nio；nio 始终使用 JDK NIO
+   */
+  public static final String NETTY_TRANSPORT_KEY = "netty.transport";
+
+  public static final String NETTY_TRANSPORT_AUTO = "auto";
+
+  public static final String NETTY_TRANSPORT_EPOLL = "epoll";
+
+  public static final String NETTY_TRANSPORT_NIO = "nio";
+
+  public static final String DEFAULT_NETTY_TRANSPORT = NETTY_TRANSPORT_AUTO;
+
+  /**
+   * 服务端 accept 线程数，epoll 下大于 1 时用 SO_REUSEPORT 在同一端口绑定多个监听 socket
+   */
+  public static final String ACCEPTORS_KEY = "acceptors";
+
+  public static final int DEFAULT_ACCEPTORS = 1;
+
+  /**
+   * 服务端是否与其它端口共用 worker 线程组，客户端始终共用一个线程组，线程数见 {@link #IO_THREADS_KEY}
+   */
+  public static final String SHARE_SERVER_WORKERS_KEY = "server.workers.shared";
+
+  /**
+   * 客户端连接注册到哪个 EventLoop：none 轮询，address 按对端地址固定到一个 EventLoop
+   */
+  public static final String IO_AFFINITY_KEY = "io.affinity";
+
+  public static final String IO_AFFINITY_NONE = "none";
+
+  public static final String IO_AFFINITY_ADDRESS = "address";
+
+  public static final String DEFAULT_IO_AFFINITY = IO_AFFINITY_NONE;
+
   public static final String CORE_THREADS_KEY = "corethreads";
 
   public static final String THREADS_KEY = "threads";
@@ -312,12 +411,84 @@ public class Constants {
    */
   public static final int TICKS_PER_WHEEL = 128;
 
+  /**
+   * 每个连接在途请求表的槽位数，向上取整为 2 的幂。
+   */
+  public static final String INFLIGHT_CAPACITY_KEY = "inflight.capacity";
+
+  public static final int DEFAULT_INFLIGHT_CAPACITY = 1024;
+
+  /**
+   * 是否合并 flush，见 FlushBatchingHandler
+   */
+  public static final String FLUSH_CONSOLIDATION_KEY = "flush.consolidation";
+
+  public static final String FLUSH_MAX_MESSAGES_KEY = "flush.max.messages";
+
+  public static final int DEFAULT_FLUSH_MAX_MESSAGES = 256;
+
+  public static final String FLUSH_MAX_BYTES_KEY = "flush.max.bytes";
+
+  public static final int DEFAULT_FLUSH_MAX_BYTES = 64 * 1024;
+
+  /**
+   * 一次读解码出多个帧时，是否合成一个 MultiMessage 往下传，由线程派发层作为一个任务投递
+   */
+  public static final String DECODE_BATCH_KEY = "decode.batch";
+
+  public static final boolean DEFAULT_DECODE_BATCH = true;
+
+  /**
+   * 发送缓冲区的低 / 高水位，单位字节，超过高水位后通道不可写，回落到低水位后恢复
+   */
+  public static final String WRITE_BUFFER_LOW_WATER_MARK_KEY = "write.buffer.low";
+
+  public static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+
+  public static final String WRITE_BUFFER_HIGH_WATER_MARK_KEY = "write.buffer.high";
+
+  public static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+
+  /**
+   * 通道不可写时请求的处理方式：block 等待一会儿，fail 直接失败，queue 放入有界队列
+   */
+  public static final String UNWRITABLE_POLICY_KEY = "unwritable.policy";
+
+  public static final String UNWRITABLE_POLICY_BLOCK = "block";
+
+  public static final String UNWRITABLE_POLICY_FAIL = "fail";
+
+  public static final String UNWRITABLE_POLICY_QUEUE = "queue";
+
+  public static final String DEFAULT_UNWRITABLE_POLICY = UNWRITABLE_POLICY_BLOCK;
+
+  /**
+   * block 策略最多等待多久，单位毫秒，不超过请求超时
+   */
+  public static final String UNWRITABLE_WAIT_KEY = "unwritable.wait";
+
+  public static final int DEFAULT_UNWRITABLE_WAIT = 100;
+
+  /**
+   * queue 策略的队列长度
+   */
+  public static final String UNWRITABLE_QUEUE_SIZE_KEY = "unwritable.queue.size";
+
+  public static final int DEFAULT_UNWRITABLE_QUEUE_SIZE = 1024;
+
   public static final String HEARTBEAT_TIMEOUT_KEY = "heartbeat.timeout";
 
   public static final String CONNECT_TIMEOUT_KEY = "connect.timeout";
 
   public static final String TIMEOUT_KEY = "timeout";
 
+  /**
+   * 请求超时检查时间轮的分片数，进程级配置（系统属性或 dubbo.properties），默认 1
+   */
+  public static final String TIMEOUT_TIMER_SHARDS_KEY = "dubbo.timeout.timer.shards";
+
+  public static final int DEFAULT_TIMEOUT_TIMER_SHARDS = 1;
+
   public static final String RETRIES_KEY = "retries";
 
   public static final String FAIL_BACK_TASKS_KEY = "failbacktasks";
@@ -330,6 +501,28 @@ public class Constants {
 
   public static final String SERIALIZATION_KEY = "serialization";
 
+  /**
+   * kryo 实例的获取方式：threadlocal 或 pooled
+   */
+  public static final String KRYO_FACTORY_KEY = "kryo.factory";
+
+  /**
+   * 消息体压缩算法：snappy 或 deflate，不配置则不压缩
+   */
+  public static final String COMPRESSOR_KEY = "compressor";
+
+  /**
+   * 消息体超过该字节数才压缩
+   */
+  public static final String COMPRESS_THRESHOLD_KEY = "compress.threshold";
+
+  public static final int DEFAULT_COMPRESS_THRESHOLD = 4096;
+
+  /**
+   * deflate 压缩级别，1 - 9
+   */
+  public static final String COMPRESS_LEVEL_KEY = "compress.level";
+
   public static final String EXTENSION_KEY = "extension";
 
   public static final String KEEP_ALIVE_KEY = "keepalive";
@@ -0,0 +1,46 @@
+package dubbo.mini.common.timer;
+
+import dubbo.mini.support.NamedThreadFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存时钟，由后台线程每 {@value #TICK_MILLIS} 毫秒刷新一次，第一次读取时才启动刷新线程。
+ * <p>
+ * 读写时间戳、请求开始 / 发送时间这类每条消息都要取的时间，只用于空闲检测和超时判断，
+ * 几毫秒的误差没有影响，读一个 volatile 字段比 {@link System#currentTimeMillis()} 便宜。需要精确时间的地方仍然用系统时钟。
+ */
+public final class CachedClock {
+
+  private static final long TICK_MILLIS = 10;
+
+  private static volatile long now;
+
+  private static volatile boolean ticking;
+
+  private CachedClock() {
+  }
+
+  /**
+   * 当前时间，最多落后约 {@value #TICK_MILLIS} 毫秒
+   */
+  public static long currentTimeMillis() {
+    if (!ticking) {
+      startTicking();
+    }
+    return now;
+  }
+
+  private static synchronized void startTicking() {
+    if (ticking) {
+      return;
+    }
+    now = System.currentTimeMillis();
+    ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+        new NamedThreadFactory("dubbo-cached-clock", true));
+    ticker.scheduleAtFixedRate(() -> now = System.currentTimeMillis(), TICK_MILLIS, TICK_MILLIS,
+        TimeUnit.MILLISECONDS);
+    ticking = true;
+  }
+}
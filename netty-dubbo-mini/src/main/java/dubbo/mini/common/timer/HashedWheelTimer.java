@@ -2,6 +2,7 @@ package dubbo.mini.common.timer;
 
 
 import dubbo.mini.common.utils.ClassHelper;
+import io.netty.util.internal.PlatformDependent;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
@@ -9,7 +10,6 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -52,8 +52,11 @@ public class HashedWheelTimer implements Timer {
   private final HashedWheelBucket[] wheel;
   private final int mask;
   private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
-  private final Queue<HashedWheelTimeout> timeouts = new LinkedBlockingQueue<>();
-  private final Queue<HashedWheelTimeout> cancelledTimeouts = new LinkedBlockingQueue<>();
+  /**
+   * 多个线程提交、只有 worker 线程消费，用无锁的 MPSC 队列
+   */
+  private final Queue<HashedWheelTimeout> timeouts = PlatformDependent.newMpscQueue();
+  private final Queue<HashedWheelTimeout> cancelledTimeouts = PlatformDependent.newMpscQueue();
   private final AtomicLong pendingTimeouts = new AtomicLong(0);
   private final long maxPendingTimeouts;
 
@@ -0,0 +1,19 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.AllChannelHandler;
+import dubbo.mini.remote.ChannelEventHandler;
+
+/**
+ * 除响应外，所有事件都派发到线程池
+ */
+public class AllDispatcher implements Dispatcher {
+
+  public static final String NAME = "all";
+
+  @Override
+  public ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url) {
+    return new AllChannelHandler(handler, url);
+  }
+
+}
@@ -0,0 +1,111 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.ThreadPool.AbortPolicyWithReport;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.dispatcher.ChannelEventRunnable.ChannelState;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.ExecutionException;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.RemotingException;
+import dubbo.mini.remote.WrappedChannelHandler;
+import dubbo.mini.remote.support.MultiMessage;
+import dubbo.mini.support.NamedThreadFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionOrderedChannelHandler extends WrappedChannelHandler {
+
+  /**
+   * 连接、断开事件使用单线程，保证同一连接的事件顺序
+   */
+  protected final ThreadPoolExecutor connectionExecutor;
+
+  private final int queueWarningLimit;
+
+  public ConnectionOrderedChannelHandler(ChannelEventHandler handler, NetURL url) {
+    super(handler, url);
+    String threadName = url.getParameter(Constants.THREAD_NAME_KEY, Constants.DEFAULT_THREAD_NAME);
+    connectionExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(
+            url.getPositiveParameter(Constants.CONNECT_QUEUE_CAPACITY, Integer.MAX_VALUE)),
+        new NamedThreadFactory(threadName, true),
+        new AbortPolicyWithReport(threadName, url));
+    queueWarningLimit = url.getParameter(Constants.CONNECT_QUEUE_WARNING_SIZE,
+        Constants.DEFAULT_CONNECT_QUEUE_WARNING_SIZE);
+  }
+
+  @Override
+  public void connected(NetChannel channel) throws RemotingException {
+    try {
+      checkQueueLength();
+      connectionExecutor.execute(new ChannelEventRunnable(channel, handler, ChannelState.CONNECTED));
+    } catch (Throwable t) {
+      throw new ExecutionException("connect event", channel,
+          getClass() + " error when process connected event .", t);
+    }
+  }
+
+  @Override
+  public void disconnected(NetChannel channel) throws RemotingException {
+    try {
+      checkQueueLength();
+      connectionExecutor
+          .execute(new ChannelEventRunnable(channel, handler, ChannelState.DISCONNECTED));
+    } catch (Throwable t) {
+      throw new ExecutionException("disconnected event", channel,
+          getClass() + " error when process disconnected event .", t);
+    }
+  }
+
+  @Override
+  public void received(NetChannel channel, Object message) throws RemotingException {
+    if (message instanceof MultiMessage) {
+      // 剩下的都需要投递，不再走下面的就地处理
+      message = receivedInline(channel, (MultiMessage) message);
+      if (message == null) {
+        return;
+      }
+    } else if (isInlineMessage(message)) {
+      handler.received(channel, message);
+      return;
+    }
+    ExecutorService executor = getExecutorService();
+    try {
+      executor.execute(new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message));
+    } catch (Throwable t) {
+      if (sendFeedback(channel, message, t)) {
+        return;
+      }
+      throw new ExecutionException(message, channel,
+          getClass() + " error when process received event .", t);
+    }
+  }
+
+  @Override
+  public void caught(NetChannel channel, Throwable exception) throws RemotingException {
+    ExecutorService executor = getExecutorService();
+    try {
+      executor.execute(new ChannelEventRunnable(channel, handler, ChannelState.CAUGHT, exception));
+    } catch (Throwable t) {
+      throw new ExecutionException("caught event", channel,
+          getClass() + " error when process caught event .", t);
+    }
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    connectionExecutor.shutdown();
+  }
+
+  private void checkQueueLength() {
+    if (connectionExecutor.getQueue().size() > queueWarningLimit) {
+      logger.warn("connectionordered channel handler `queue size: "
+          + connectionExecutor.getQueue().size() + " exceed the warning limit number :"
+          + queueWarningLimit);
+    }
+  }
+}
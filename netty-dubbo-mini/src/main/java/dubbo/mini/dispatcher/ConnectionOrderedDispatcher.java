@@ -0,0 +1,18 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelEventHandler;
+
+/**
+ * 连接、断开事件在单线程中按顺序执行，请求和异常事件派发到线程池
+ */
+public class ConnectionOrderedDispatcher implements Dispatcher {
+
+  public static final String NAME = "connection";
+
+  @Override
+  public ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url) {
+    return new ConnectionOrderedChannelHandler(handler, url);
+  }
+
+}
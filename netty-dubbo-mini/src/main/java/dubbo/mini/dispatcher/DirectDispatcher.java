@@ -0,0 +1,18 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelEventHandler;
+
+/**
+ * 所有事件都直接在 IO 线程执行，不创建线程池
+ */
+public class DirectDispatcher implements Dispatcher {
+
+  public static final String NAME = "direct";
+
+  @Override
+  public ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url) {
+    return handler;
+  }
+
+}
@@ -0,0 +1,17 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.support.SPI;
+
+/**
+ * 线程派发策略，决定 ChannelEventHandler 的各个事件在 IO 线程还是业务线程池中执行。
+ * <p>
+ * 通过 {@link dubbo.mini.common.Constants#DISPATCHER_KEY} 选择，默认 all。
+ */
+@SPI(AllDispatcher.NAME)
+public interface Dispatcher {
+
+  ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url);
+
+}
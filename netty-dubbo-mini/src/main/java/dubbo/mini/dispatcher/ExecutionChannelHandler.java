@@ -0,0 +1,85 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.dispatcher.ChannelEventRunnable.ChannelState;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.ExecutionException;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.RemotingException;
+import dubbo.mini.remote.WrappedChannelHandler;
+import dubbo.mini.remote.support.MultiMessage;
+import java.util.concurrent.ExecutorService;
+
+public class ExecutionChannelHandler extends WrappedChannelHandler {
+
+  public ExecutionChannelHandler(ChannelEventHandler handler, NetURL url) {
+    super(handler, url);
+  }
+
+  @Override
+  public void connected(NetChannel channel) throws RemotingException {
+    ExecutorService executor = getExecutorService();
+    try {
+      executor.execute(new ChannelEventRunnable(channel, handler, ChannelState.CONNECTED));
+    } catch (Throwable t) {
+      throw new ExecutionException("connect event", channel,
+          getClass() + " error when process connected event .", t);
+    }
+  }
+
+  @Override
+  public void disconnected(NetChannel channel) throws RemotingException {
+    ExecutorService executor = getExecutorService();
+    try {
+      executor.execute(new ChannelEventRunnable(channel, handler, ChannelState.DISCONNECTED));
+    } catch (Throwable t) {
+      throw new ExecutionException("disconnect event", channel,
+          getClass() + " error when process disconnected event .", t);
+    }
+  }
+
+  @Override
+  public void received(NetChannel channel, Object message) throws RemotingException {
+    if (message instanceof MultiMessage) {
+      // 剩下的都需要投递，不再走下面的就地处理
+      message = receivedInline(channel, (MultiMessage) message);
+      if (message == null) {
+        return;
+      }
+    } else if (isInlineMessage(message)) {
+      handler.received(channel, message);
+      return;
+    }
+    ExecutorService executor = getExecutorService();
+    try {
+      executor.execute(new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message));
+    } catch (Throwable t) {
+      if (sendFeedback(channel, message, t)) {
+        return;
+      }
+      throw new ExecutionException(message, channel,
+          getClass() + " error when process received event .", t);
+    }
+  }
+
+  /**
+   * 只有请求进入线程池，响应、事件等在 IO 线程处理；MultiMessage 里可能有请求，不算就地处理
+   */
+  @Override
+  protected boolean isInlineMessage(Object message) {
+    return !(message instanceof Request || message instanceof MultiMessage);
+  }
+
+  @Override
+  public void caught(NetChannel channel, Throwable exception) throws RemotingException {
+    ExecutorService executor = getExecutorService();
+    try {
+      executor.execute(new ChannelEventRunnable(channel, handler, ChannelState.CAUGHT, exception));
+    } catch (Throwable t) {
+      throw new ExecutionException("caught event", channel,
+          getClass() + " error when process caught event .", t);
+    }
+  }
+
+}
@@ -0,0 +1,18 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelEventHandler;
+
+/**
+ * 请求以及连接、断开、异常事件派发到线程池，其它消息在 IO 线程执行
+ */
+public class ExecutionDispatcher implements Dispatcher {
+
+  public static final String NAME = "execution";
+
+  @Override
+  public ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url) {
+    return new ExecutionChannelHandler(handler, url);
+  }
+
+}
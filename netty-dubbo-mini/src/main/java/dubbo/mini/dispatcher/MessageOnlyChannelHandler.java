@@ -0,0 +1,43 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.dispatcher.ChannelEventRunnable.ChannelState;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.ExecutionException;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.RemotingException;
+import dubbo.mini.remote.WrappedChannelHandler;
+import dubbo.mini.remote.support.MultiMessage;
+import java.util.concurrent.ExecutorService;
+
+public class MessageOnlyChannelHandler extends WrappedChannelHandler {
+
+  public MessageOnlyChannelHandler(ChannelEventHandler handler, NetURL url) {
+    super(handler, url);
+  }
+
+  @Override
+  public void received(NetChannel channel, Object message) throws RemotingException {
+    if (message instanceof MultiMessage) {
+      // 剩下的都需要投递，不再走下面的就地处理
+      message = receivedInline(channel, (MultiMessage) message);
+      if (message == null) {
+        return;
+      }
+    } else if (isInlineMessage(message)) {
+      handler.received(channel, message);
+      return;
+    }
+    ExecutorService executor = getExecutorService();
+    try {
+      executor.execute(new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message));
+    } catch (Throwable t) {
+      if (sendFeedback(channel, message, t)) {
+        return;
+      }
+      throw new ExecutionException(message, channel,
+          getClass() + " error when process received event .", t);
+    }
+  }
+
+}
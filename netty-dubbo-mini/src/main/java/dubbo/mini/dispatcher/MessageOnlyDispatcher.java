@@ -0,0 +1,18 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelEventHandler;
+
+/**
+ * 只有请求消息派发到线程池，连接、断开、异常事件在 IO 线程执行
+ */
+public class MessageOnlyDispatcher implements Dispatcher {
+
+  public static final String NAME = "message";
+
+  @Override
+  public ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url) {
+    return new MessageOnlyChannelHandler(handler, url);
+  }
+
+}
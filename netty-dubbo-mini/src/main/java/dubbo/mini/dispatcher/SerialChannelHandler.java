@@ -0,0 +1,117 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.dispatcher.ChannelEventRunnable.ChannelState;
+import dubbo.mini.remote.ChannelAttributeKey;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.ExecutionException;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.RemotingException;
+import dubbo.mini.remote.WrappedChannelHandler;
+import dubbo.mini.remote.support.MultiMessage;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 每个连接一个 {@link SerialExecutor}，同一连接的事件按顺序执行，多个连接共享 worker 线程池。
+ * <p>
+ * 单个连接排队的消息超过 {@link Constants#SERIAL_QUEUES_KEY} 时，直接返回
+ * SERVER_THREADPOOL_EXHAUSTED_ERROR，不影响其它连接。一批 {@link MultiMessage} 按其中的消息条数计数。
+ */
+public class SerialChannelHandler extends WrappedChannelHandler {
+
+  private static final ChannelAttributeKey<SerialExecutor> SERIAL_EXECUTOR_KEY = ChannelAttributeKey
+      .valueOf("dubbo.serial.executor");
+
+  private final int queues;
+
+  public SerialChannelHandler(ChannelEventHandler handler, NetURL url) {
+    super(handler, url);
+    this.queues = url.getPositiveParameter(Constants.SERIAL_QUEUES_KEY,
+        Constants.DEFAULT_SERIAL_QUEUES);
+  }
+
+  /**
+   * worker 队列中每个连接最多一个任务，总量受连接数限制，所以没有配置 {@link Constants#QUEUES_KEY}
+   * 时使用无界队列
+   */
+  @Override
+  protected ExecutorService getExecutor(NetURL url) {
+    return createExecutor(url, url.getParameter(Constants.QUEUES_KEY, -1));
+  }
+
+  @Override
+  public void connected(NetChannel channel) throws RemotingException {
+    try {
+      getSerialExecutor(channel)
+          .execute(new ChannelEventRunnable(channel, handler, ChannelState.CONNECTED));
+    } catch (Throwable t) {
+      throw new ExecutionException("connect event", channel,
+          getClass() + " error when process connected event .", t);
+    }
+  }
+
+  @Override
+  public void disconnected(NetChannel channel) throws RemotingException {
+    try {
+      getSerialExecutor(channel)
+          .execute(new ChannelEventRunnable(channel, handler, ChannelState.DISCONNECTED));
+    } catch (Throwable t) {
+      throw new ExecutionException("disconnect event", channel,
+          getClass() + " error when process disconnected event .", t);
+    } finally {
+      // 已提交的任务仍会执行完
+      channel.removeAttribute(SERIAL_EXECUTOR_KEY);
+    }
+  }
+
+  @Override
+  public void received(NetChannel channel, Object message) throws RemotingException {
+    if (message instanceof MultiMessage) {
+      // 剩下的都需要投递，不再走下面的就地处理
+      message = receivedInline(channel, (MultiMessage) message);
+      if (message == null) {
+        return;
+      }
+    } else if (isInlineMessage(message)) {
+      handler.received(channel, message);
+      return;
+    }
+    int frames = message instanceof MultiMessage ? ((MultiMessage) message).size() : 1;
+    try {
+      getSerialExecutor(channel).execute(
+          new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message), frames);
+    } catch (Throwable t) {
+      if (sendFeedback(channel, message, t)) {
+        return;
+      }
+      throw new ExecutionException(message, channel,
+          getClass() + " error when process received event .", t);
+    }
+  }
+
+  @Override
+  public void caught(NetChannel channel, Throwable exception) throws RemotingException {
+    try {
+      getSerialExecutor(channel)
+          .execute(new ChannelEventRunnable(channel, handler, ChannelState.CAUGHT, exception));
+    } catch (Throwable t) {
+      throw new ExecutionException("caught event", channel,
+          getClass() + " error when process caught event .", t);
+    }
+  }
+
+  private SerialExecutor getSerialExecutor(NetChannel channel) {
+    SerialExecutor executor = channel.getAttribute(SERIAL_EXECUTOR_KEY);
+    if (executor == null) {
+      synchronized (this) {
+        executor = channel.getAttribute(SERIAL_EXECUTOR_KEY);
+        if (executor == null) {
+          executor = new SerialExecutor(getExecutorService(), queues);
+          channel.setAttribute(SERIAL_EXECUTOR_KEY, executor);
+        }
+      }
+    }
+    return executor;
+  }
+}
@@ -0,0 +1,18 @@
+package dubbo.mini.dispatcher;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelEventHandler;
+
+/**
+ * 同一连接的事件串行执行，连接之间共享线程池
+ */
+public class SerialDispatcher implements Dispatcher {
+
+  public static final String NAME = "serial";
+
+  @Override
+  public ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url) {
+    return new SerialChannelHandler(handler, url);
+  }
+
+}
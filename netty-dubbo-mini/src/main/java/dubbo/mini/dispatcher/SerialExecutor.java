@@ -0,0 +1,126 @@
+package dubbo.mini.dispatcher;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 单个连接的串行任务队列，类似 actor 的 mailbox。
+ * <p>
+ * 任务按提交顺序在共享的 worker 线程池中逐个执行，同一时刻最多占用一个线程。 每次最多连续执行 {@link #MAX_BATCH}
+ * 个任务后让出线程，避免一个繁忙的连接长期霸占 worker。
+ * <p>
+ * 排队上限按消息条数计算，一个任务可以带多条消息（解码合并的一批）。
+ */
+final class SerialExecutor implements Executor, Runnable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SerialExecutor.class);
+
+  private static final int MAX_BATCH = 64;
+
+  private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+  /**
+   * 排队的消息条数
+   */
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  private final Executor worker;
+
+  private final int limit;
+
+  SerialExecutor(Executor worker, int limit) {
+    this.worker = worker;
+    this.limit = limit;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    execute(task, 1);
+  }
+
+  /**
+   * @param frames 任务包含的消息条数
+   * @throws RejectedExecutionException 排队消息数超过上限，或 worker 线程池拒绝
+   */
+  void execute(Runnable task, int frames) {
+    if (size.addAndGet(frames) > limit) {
+      size.addAndGet(-frames);
+      throw new RejectedExecutionException(
+          "Channel queue is full, " + limit + " messages are waiting");
+    }
+    Task entry = new Task(task, frames);
+    tasks.add(entry);
+    try {
+      schedule();
+    } catch (RejectedExecutionException e) {
+      if (tasks.remove(entry)) {
+        size.addAndGet(-frames);
+      }
+      throw e;
+    }
+  }
+
+  int size() {
+    return size.get();
+  }
+
+  private void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      try {
+        worker.execute(this);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    for (; ; ) {
+      for (int i = 0; i < MAX_BATCH; i++) {
+        Task task = tasks.poll();
+        if (task == null) {
+          break;
+        }
+        size.addAndGet(-task.frames);
+        try {
+          task.runnable.run();
+        } catch (Throwable t) {
+          logger.warn("SerialExecutor task error: " + t.getMessage(), t);
+        }
+      }
+      scheduled.set(false);
+      // 还有剩余任务，重新排到 worker 队列的末尾
+      if (tasks.isEmpty() || !scheduled.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        worker.execute(this);
+        return;
+      } catch (RejectedExecutionException e) {
+        // worker 已满（本线程还占着名额），在当前线程继续执行，不让任务滞留
+      }
+    }
+  }
+
+  private static final class Task {
+
+    final Runnable runnable;
+
+    final int frames;
+
+    Task(Runnable runnable, int frames) {
+      this.runnable = runnable;
+      this.frames = frames;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package dubbo.mini.exchange;
+
+/**
+ * 只有 Header、没有 Body 的事件帧。
+ * <p>
+ * 心跳和 readonly 事件不携带数据，编码时直接写入预先算好的 Header，解码时只看 Header 的 flag，
+ * 得到的是这里的常量，不创建 {@link Request} / {@link Response}，也不经过序列化。
+ */
+public enum EventFrame {
+
+  /**
+   * 心跳请求，对端需要回复 {@link #HEARTBEAT_RESPONSE}
+   */
+  HEARTBEAT_REQUEST,
+
+  /**
+   * 心跳响应
+   */
+  HEARTBEAT_RESPONSE,
+
+  /**
+   * 服务端即将关闭，客户端不再向该连接发送新请求
+   */
+  READONLY
+}
@@ -68,4 +68,9 @@ public class ExchangeHandlerDispatcher implements ExchangeHandler {
   public void caught(NetChannel channel, Throwable exception) throws RemotingException {
     handlerDispatcher.caught(channel, exception);
   }
+
+  @Override
+  public void writabilityChanged(NetChannel channel) throws RemotingException {
+    handlerDispatcher.writabilityChanged(channel);
+  }
 }
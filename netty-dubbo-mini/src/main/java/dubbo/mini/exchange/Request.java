@@ -51,6 +51,11 @@ public class Request {
    */
   private Object mData;
 
+  /**
+   * 服务端解码完成的时间（System.nanoTime），用于计算请求的排队时间
+   */
+  private long mArriveTime;
+
   public Request() {
     mId = newId();
   }
@@ -59,6 +64,14 @@ public class Request {
     mId = id;
   }
 
+  public long getArriveTime() {
+    return mArriveTime;
+  }
+
+  public void setArriveTime(long arriveTime) {
+    mArriveTime = arriveTime;
+  }
+
   private static long newId() {
     // getAndIncrement() When it grows to MAX_VALUE, it will grow to MIN_VALUE, and the negative can be used as ID
     return INVOKE_ID.getAndIncrement();
@@ -70,6 +70,11 @@ public class Response {
    */
   public static final byte SERVER_THREADPOOL_EXHAUSTED_ERROR = 100;
 
+  /**
+   * server side overloaded, request shed by the adaptive concurrency limiter.
+   */
+  public static final byte SERVER_OVERLOADED = 101;
+
   /**
    * 响应编号
    * <p>
@@ -1,5 +1,6 @@
 package dubbo.mini.exchange.header;
 
+import dubbo.mini.common.timer.CachedClock;
 import dubbo.mini.common.timer.Timeout;
 import dubbo.mini.common.timer.Timer;
 import dubbo.mini.common.timer.TimerTask;
@@ -23,16 +24,19 @@ public abstract class AbstractTimerTask implements TimerTask {
     this.channelProvider = channelProvider;
   }
 
-  static Long lastRead(NetChannel channel) {
-    return (Long) channel.getAttribute(HeaderExchangeHandler.KEY_READ_TIMESTAMP);
+  /**
+   * 最后读到数据的时间，没有时为 0
+   */
+  static long lastRead(NetChannel channel) {
+    return channel.getReadTimestamp();
   }
 
-  static Long lastWrite(NetChannel channel) {
-    return (Long) channel.getAttribute(HeaderExchangeHandler.KEY_WRITE_TIMESTAMP);
+  static long lastWrite(NetChannel channel) {
+    return channel.getWriteTimestamp();
   }
 
-  static Long now() {
-    return System.currentTimeMillis();
+  static long now() {
+    return CachedClock.currentTimeMillis();
   }
 
   public void cancel() {
@@ -0,0 +1,105 @@
+package dubbo.mini.exchange.header;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于排队时间梯度的自适应并发限制。
+ * <p>
+ * 每个请求完成时，用平滑后的排队时间（解码完成到在业务线程池中开始处理）和目标值计算梯度 {@code target / queueDelay}，
+ * 取值 [0.5, 1]： 排队时间低于目标时梯度为 1，并发接近上限时再加 {@code sqrt(limit)} 的余量向上探测；
+ * 排队时间超过目标时按梯度收缩。超过上限的请求直接返回 SERVER_OVERLOADED，不执行业务逻辑。
+ */
+final class AdaptiveConcurrencyLimiter {
+
+  private static final int INITIAL_LIMIT = 20;
+
+  private static final int MIN_LIMIT = 2;
+
+  /**
+   * 排队时间的平滑系数
+   */
+  private static final double QUEUE_DELAY_SMOOTHING = 0.1;
+
+  /**
+   * 并发上限的平滑系数
+   */
+  private static final double LIMIT_SMOOTHING = 0.2;
+
+  private final AtomicInteger inflight = new AtomicInteger();
+
+  private final int maxLimit;
+
+  private final long targetNanos;
+
+  private volatile double limit;
+
+  private double smoothedQueueDelay;
+
+  AdaptiveConcurrencyLimiter(NetURL url) {
+    this(url.getPositiveParameter(Constants.ADAPTIVE_MAX_LIMIT_KEY,
+        Constants.DEFAULT_ADAPTIVE_MAX_LIMIT),
+        TimeUnit.MILLISECONDS.toNanos(url.getPositiveParameter(
+            Constants.ADAPTIVE_QUEUE_TARGET_KEY, Constants.DEFAULT_ADAPTIVE_QUEUE_TARGET)));
+  }
+
+  AdaptiveConcurrencyLimiter(int maxLimit, long targetNanos) {
+    this.maxLimit = Math.max(maxLimit, MIN_LIMIT);
+    this.targetNanos = targetNanos;
+    this.limit = Math.min(INITIAL_LIMIT, this.maxLimit);
+  }
+
+  static boolean isEnabled(NetURL url) {
+    return url != null && url.getParameter(Constants.ADAPTIVE_LIMITER_KEY, false);
+  }
+
+  /**
+   * @return 是否获得执行许可，获得后必须调用 {@link #release(long)}
+   */
+  boolean tryAcquire() {
+    for (; ; ) {
+      int current = inflight.get();
+      if (current >= (int) limit) {
+        return false;
+      }
+      if (inflight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @param queueNanos 请求的排队时间
+   */
+  void release(long queueNanos) {
+    int current = inflight.getAndDecrement();
+    update(Math.max(queueNanos, 0), current);
+  }
+
+  private synchronized void update(long queueNanos, int inflightAtRelease) {
+    if (smoothedQueueDelay == 0) {
+      smoothedQueueDelay = queueNanos;
+    } else {
+      smoothedQueueDelay += (queueNanos - smoothedQueueDelay) * QUEUE_DELAY_SMOOTHING;
+    }
+    double gradient = Math.max(0.5, Math.min(1.0, targetNanos / Math.max(smoothedQueueDelay, 1)));
+    double current = limit;
+    // 排队时间在目标内、并发用到一半以上时才向上探测：空闲时上限不会无限增长，
+    // 排队时也不会被余量抵消而停在线程数附近
+    double headroom =
+        gradient >= 1.0 && inflightAtRelease * 2 >= current ? Math.sqrt(current) : 0;
+    double newLimit = current * gradient + headroom;
+    newLimit = current * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+    limit = Math.max(MIN_LIMIT, Math.min(maxLimit, newLimit));
+  }
+
+  int getLimit() {
+    return (int) limit;
+  }
+
+  int getInflight() {
+    return inflight.get();
+  }
+}
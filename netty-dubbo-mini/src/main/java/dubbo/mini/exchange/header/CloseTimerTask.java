@@ -19,12 +19,12 @@ public class CloseTimerTask extends AbstractTimerTask {
   @Override
   protected void doTask(NetChannel channel) {
     try {
-      Long lastRead = lastRead(channel);
-      Long lastWrite = lastWrite(channel);
-      Long now = now();
+      long lastRead = lastRead(channel);
+      long lastWrite = lastWrite(channel);
+      long now = now();
       // check ping & pong at server
-      if ((lastRead != null && now - lastRead > idleTimeout)
-          || (lastWrite != null && now - lastWrite > idleTimeout)) {
+      if ((lastRead != 0 && now - lastRead > idleTimeout)
+          || (lastWrite != 0 && now - lastWrite > idleTimeout)) {
         logger.warn("Close channel " + channel + ", because idleCheck timeout: "
             + idleTimeout + "ms");
         channel.close();
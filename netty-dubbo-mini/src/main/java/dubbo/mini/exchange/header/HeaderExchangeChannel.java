@@ -2,10 +2,12 @@ package dubbo.mini.exchange.header;
 
 import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.EventFrame;
 import dubbo.mini.exchange.ExchangeChannel;
 import dubbo.mini.exchange.ExchangeHandler;
 import dubbo.mini.exchange.Request;
 import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
@@ -19,7 +21,8 @@ final class HeaderExchangeChannel implements ExchangeChannel {
 
   private static final Logger logger = LoggerFactory.getLogger(HeaderExchangeChannel.class);
 
-  private static final String CHANNEL_KEY = HeaderExchangeChannel.class.getName() + ".CHANNEL";
+  private static final ChannelAttributeKey<HeaderExchangeChannel> CHANNEL_KEY = ChannelAttributeKey
+      .valueOf(HeaderExchangeChannel.class.getName() + ".CHANNEL");
 
   /**
    * 通道 通道。HeaderExchangeChannel 是传入 channel 属性的装饰器， 每个实现的方法，都会调用 channel 。如下是该属性的一个例子：
@@ -50,7 +53,7 @@ final class HeaderExchangeChannel implements ExchangeChannel {
     }
     // 通过 ch.attribute 的 CHANNEL_KEY 键值，
     // 保证有且仅有为 ch 属性，创建唯一的 HeaderExchangeChannel 对象。
-    HeaderExchangeChannel ret = (HeaderExchangeChannel) ch.getAttribute(CHANNEL_KEY);
+    HeaderExchangeChannel ret = ch.getAttribute(CHANNEL_KEY);
     if (ret == null) {
       ret = new HeaderExchangeChannel(ch);
       // 要求已连接。
@@ -85,6 +88,7 @@ final class HeaderExchangeChannel implements ExchangeChannel {
     }
     if (message instanceof Request
         || message instanceof Response
+        || message instanceof EventFrame
         || message instanceof String) {
       channel.send(message, sent);
     } else {
@@ -117,8 +121,13 @@ final class HeaderExchangeChannel implements ExchangeChannel {
     // 创建 DefaultFuture 对象
     DefaultFuture future = DefaultFuture.newFuture(channel, req, timeout);
     try {
-      // 发送请求
-      channel.send(req);
+      // 发送请求，通道不可写时按策略等待、失败或排队，避免发送缓冲区无限堆积
+      // 未连接时直接发送，由 channel 报告连接已关闭
+      if (channel.isWritable() || !channel.isConnected()) {
+        channel.send(req);
+      } else {
+        WriteBackPressure.getOrAdd(channel).send(channel, req, future, timeout);
+      }
     } catch (RemotingException e) {
       // 发生异常，取消 DefaultFuture
       future.cancel();
@@ -195,6 +204,31 @@ final class HeaderExchangeChannel implements ExchangeChannel {
     return channel.isConnected();
   }
 
+  @Override
+  public boolean isWritable() {
+    return channel.isWritable();
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return channel.getReadTimestamp();
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    channel.setReadTimestamp(timestamp);
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return channel.getWriteTimestamp();
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    channel.setWriteTimestamp(timestamp);
+  }
+
   @Override
   public ChannelEventHandler getChannelHandler() {
     return channel.getChannelHandler();
@@ -220,6 +254,21 @@ final class HeaderExchangeChannel implements ExchangeChannel {
     channel.removeAttribute(key);
   }
 
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return channel.getAttribute(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    channel.setAttribute(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    channel.removeAttribute(key);
+  }
+
   @Override
   public boolean hasAttribute(String key) {
     return channel.hasAttribute(key);
@@ -9,6 +9,7 @@ import dubbo.mini.common.timer.HashedWheelTimer;
 import dubbo.mini.exchange.ExchangeChannel;
 import dubbo.mini.exchange.ExchangeClient;
 import dubbo.mini.exchange.ExchangeHandler;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.Client;
 import dubbo.mini.remote.RemotingException;
@@ -83,6 +84,31 @@ public class HeaderExchangeClient implements ExchangeClient {
     return channel.isConnected();
   }
 
+  @Override
+  public boolean isWritable() {
+    return channel.isWritable();
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return channel.getReadTimestamp();
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    channel.setReadTimestamp(timestamp);
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return channel.getWriteTimestamp();
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    channel.setWriteTimestamp(timestamp);
+  }
+
   @Override
   public InetSocketAddress getLocalAddress() {
     return channel.getLocalAddress();
@@ -154,6 +180,21 @@ public class HeaderExchangeClient implements ExchangeClient {
     channel.removeAttribute(key);
   }
 
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return channel.getAttribute(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    channel.setAttribute(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    channel.removeAttribute(key);
+  }
+
   @Override
   public boolean hasAttribute(String key) {
     return channel.hasAttribute(key);
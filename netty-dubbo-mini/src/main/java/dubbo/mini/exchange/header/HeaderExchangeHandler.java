@@ -19,12 +19,15 @@ package dubbo.mini.exchange.header;
 
 import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
+import dubbo.mini.common.timer.CachedClock;
 import dubbo.mini.common.utils.NetUtils;
 import dubbo.mini.common.utils.StringUtils;
+import dubbo.mini.exchange.EventFrame;
 import dubbo.mini.exchange.ExchangeChannel;
 import dubbo.mini.exchange.ExchangeHandler;
 import dubbo.mini.exchange.Request;
 import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.ChannelHandlerDelegate;
 import dubbo.mini.remote.ExecutionException;
@@ -44,12 +47,21 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
 
   protected static final Logger logger = LoggerFactory.getLogger(HeaderExchangeHandler.class);
 
-  public static final String KEY_READ_TIMESTAMP = HeartbeatHandler.KEY_READ_TIMESTAMP;
-
-  public static final String KEY_WRITE_TIMESTAMP = HeartbeatHandler.KEY_WRITE_TIMESTAMP;
+  /**
+   * 对端发来只读事件后打上的标记，调用方判断可用性时读取
+   */
+  public static final ChannelAttributeKey<Boolean> READONLY_KEY = ChannelAttributeKey
+      .valueOf(Constants.CHANNEL_ATTRIBUTE_READONLY_KEY);
 
   private final ExchangeHandler handler;
 
+  /**
+   * 服务端自适应并发限制，首次处理请求时按 url 创建，未开启时为 null
+   */
+  private volatile AdaptiveConcurrencyLimiter limiter;
+
+  private volatile boolean limiterInitialized;
+
   public HeaderExchangeHandler(ExchangeHandler handler) {
     if (handler == null) {
       throw new IllegalArgumentException("handler == null");
@@ -86,7 +98,7 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
    */
   void handlerEvent(NetChannel channel, Request req) {
     if (req.getData() != null && req.getData().equals(Request.READONLY_EVENT)) {
-      channel.setAttribute(Constants.CHANNEL_ATTRIBUTE_READONLY_KEY, Boolean.TRUE);
+      channel.setAttribute(READONLY_KEY, Boolean.TRUE);
     }
   }
 
@@ -117,6 +129,17 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
       channel.send(res);
       return;
     }
+    // 超过自适应并发上限，不执行业务逻辑，直接返回过载响应
+    AdaptiveConcurrencyLimiter limiter = getLimiter(channel);
+    long queueNanos = req.getArriveTime() == 0 ? 0 : System.nanoTime() - req.getArriveTime();
+    if (limiter != null && !limiter.tryAcquire()) {
+      res.setStatus(Response.SERVER_OVERLOADED);
+      res.setErrorMessage("Server side(" + channel.getLocalAddress() + ") is overloaded, limit: "
+          + limiter.getLimit() + ", request queued " + queueNanos / 1000 + "us");
+      channel.send(res);
+      return;
+    }
+    boolean releaseOnError = limiter != null;
     // find handler by message class.
     // 使用 ExchangeHandler 处理，并返回响应
     // 调用 ExchangeHandler#reply(channel, message) 方法，返回结果，并设置到响应( Response) 最终返回。
@@ -124,6 +147,10 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
     try {
       // handle data.
       CompletableFuture<Object> future = handler.reply(channel, msg);
+      if (limiter != null) {
+        future.whenComplete((result, t) -> limiter.release(queueNanos));
+        releaseOnError = false;
+      }
       if (future.isDone()) {
         res.setStatus(Response.OK);
         res.setResult(future.get());
@@ -147,16 +174,34 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
         }
       });
     } catch (Throwable e) {
+      if (releaseOnError) {
+        limiter.release(queueNanos);
+      }
       res.setStatus(Response.SERVICE_ERROR);
       res.setErrorMessage(StringUtils.toString(e));
       channel.send(res);
     }
   }
 
+  private AdaptiveConcurrencyLimiter getLimiter(NetChannel channel) {
+    if (!limiterInitialized) {
+      synchronized (this) {
+        if (!limiterInitialized) {
+          NetURL url = channel.getUrl();
+          if (AdaptiveConcurrencyLimiter.isEnabled(url)) {
+            limiter = new AdaptiveConcurrencyLimiter(url);
+          }
+          limiterInitialized = true;
+        }
+      }
+    }
+    return limiter;
+  }
+
   @Override
   public void connected(NetChannel channel) throws RemotingException {
-    channel.setAttribute(KEY_READ_TIMESTAMP, System.currentTimeMillis());
-    channel.setAttribute(KEY_WRITE_TIMESTAMP, System.currentTimeMillis());
+    channel.setReadTimestamp(CachedClock.currentTimeMillis());
+    channel.setWriteTimestamp(CachedClock.currentTimeMillis());
     ExchangeChannel exchangeChannel = HeaderExchangeChannel.getOrAddChannel(channel);
     try {
       handler.connected(exchangeChannel);
@@ -167,8 +212,8 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
 
   @Override
   public void disconnected(NetChannel channel) throws RemotingException {
-    channel.setAttribute(KEY_READ_TIMESTAMP, System.currentTimeMillis());
-    channel.setAttribute(KEY_WRITE_TIMESTAMP, System.currentTimeMillis());
+    channel.setReadTimestamp(CachedClock.currentTimeMillis());
+    channel.setWriteTimestamp(CachedClock.currentTimeMillis());
     ExchangeChannel exchangeChannel = HeaderExchangeChannel.getOrAddChannel(channel);
     try {
       handler.disconnected(exchangeChannel);
@@ -182,7 +227,7 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
   public void sent(NetChannel channel, Object message) throws RemotingException {
     Throwable exception = null;
     try {
-      channel.setAttribute(KEY_WRITE_TIMESTAMP, System.currentTimeMillis());
+      channel.setWriteTimestamp(CachedClock.currentTimeMillis());
       ExchangeChannel exchangeChannel = HeaderExchangeChannel.getOrAddChannel(channel);
       try {
         handler.sent(exchangeChannel, message);
@@ -194,7 +239,10 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
     }
     if (message instanceof Request) {
       Request request = (Request) message;
-      DefaultFuture.sent(channel, request);
+      // 单向请求没有 DefaultFuture
+      if (request.isTwoWay()) {
+        DefaultFuture.sent(channel, request);
+      }
     }
     if (exception != null) {
       if (exception instanceof RuntimeException) {
@@ -211,7 +259,7 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
   @Override
   public void received(NetChannel channel, Object message) throws RemotingException {
     // 设置最后的读时间
-    channel.setAttribute(KEY_READ_TIMESTAMP, System.currentTimeMillis());
+    channel.setReadTimestamp(CachedClock.currentTimeMillis());
     // 创建 ExchangeChannel 对象
     final ExchangeChannel exchangeChannel = HeaderExchangeChannel.getOrAddChannel(channel);
     try {
@@ -225,6 +273,9 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
           // 调用 #handleRequest(channel, request) 方法，处理普通请求（需要响应），并将响应写回请求方。
           if (request.isTwoWay()) {
             handleRequest(exchangeChannel, request);
+          } else if (request.isBroken()) {
+            // 单向请求无法解析，调用方不等待响应，记录日志后丢弃
+            logger.warn("Drop broken oneway request " + request + ", channel: " + channel);
           } else {
             // 提交给装饰的 `handler`，继续处理
             // 调用 ChannelHandler#received(channel, message) 方法，处理普通请求（无需响应）。
@@ -233,6 +284,10 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
         }
       } else if (message instanceof Response) {
         handleResponse(channel, (Response) message);
+      } else if (message == EventFrame.READONLY) {
+        channel.setAttribute(READONLY_KEY, Boolean.TRUE);
+      } else if (message instanceof EventFrame) {
+        // 心跳已在 HeartbeatHandler 处理
       } else {
         handler.received(exchangeChannel, message);
       }
@@ -269,6 +324,18 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
     }
   }
 
+  @Override
+  public void writabilityChanged(NetChannel channel) throws RemotingException {
+    // 唤醒等待可写的请求，写出排队的请求
+    WriteBackPressure.writabilityChanged(channel);
+    ExchangeChannel exchangeChannel = HeaderExchangeChannel.getOrAddChannel(channel);
+    try {
+      handler.writabilityChanged(exchangeChannel);
+    } finally {
+      HeaderExchangeChannel.removeChannelIfDisconnected(channel);
+    }
+  }
+
   @Override
   public ChannelEventHandler getHandler() {
     if (handler instanceof ChannelHandlerDelegate) {
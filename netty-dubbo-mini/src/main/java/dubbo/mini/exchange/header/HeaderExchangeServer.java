@@ -9,7 +9,7 @@ import dubbo.mini.common.utils.CollectionUtils;
 import dubbo.mini.common.utils.UrlUtils;
 import dubbo.mini.exchange.ExchangeChannel;
 import dubbo.mini.exchange.ExchangeServer;
-import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.EventFrame;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
@@ -111,16 +111,12 @@ public class HeaderExchangeServer implements ExchangeServer {
    * 发送 READONLY 事件给所有 Client ，表示 Server 不再接收新的消息，避免不断有新的消息接收到。 广播客户端，READONLY_EVENT 事件。
    */
   private void sendChannelReadOnlyEvent() {
-    Request request = new Request();
-    request.setEvent(Request.READONLY_EVENT);
-    request.setTwoWay(false);
-
     Collection<NetChannel> channels = getChannels();
     for (NetChannel channel : channels) {
       try {
         if (channel.isConnected()) {
-          channel
-              .send(request, getUrl().getParameter(Constants.CHANNEL_READONLYEVENT_SENT_KEY, true));
+          channel.send(EventFrame.READONLY,
+              getUrl().getParameter(Constants.CHANNEL_READONLYEVENT_SENT_KEY, true));
         }
       } catch (RemotingException e) {
         logger.warn("send cannot write message error.", e);
@@ -1,12 +1,15 @@
 package dubbo.mini.exchange.header;
 
 import dubbo.mini.common.Constants;
+import dubbo.mini.common.timer.CachedClock;
+import dubbo.mini.exchange.EventFrame;
 import dubbo.mini.exchange.Request;
 import dubbo.mini.exchange.Response;
 import dubbo.mini.remote.AbstractChannelHandlerDelegate;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
+import dubbo.mini.remote.support.MultiMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,10 +17,6 @@ public class HeartbeatHandler extends AbstractChannelHandlerDelegate {
 
   private static final Logger logger = LoggerFactory.getLogger(HeartbeatHandler.class);
 
-  public static final String KEY_READ_TIMESTAMP = "READ_TIMESTAMP";
-
-  public static final String KEY_WRITE_TIMESTAMP = "WRITE_TIMESTAMP";
-
   public HeartbeatHandler(ChannelEventHandler handler) {
     super(handler);
   }
@@ -45,6 +44,54 @@ public class HeartbeatHandler extends AbstractChannelHandlerDelegate {
   @Override
   public void received(NetChannel channel, Object message) throws RemotingException {
     setReadTimestamp(channel);
+    if (message instanceof MultiMessage) {
+      receivedBatch(channel, (MultiMessage) message);
+      return;
+    }
+    if (!handleHeartbeat(channel, message)) {
+      handler.received(channel, message);
+    }
+  }
+
+  /**
+   * 一次读到的多条消息：心跳就地处理，其余的仍作为一批往下传
+   */
+  private void receivedBatch(NetChannel channel, MultiMessage batch) throws RemotingException {
+    boolean heartbeat = false;
+    for (Object message : batch) {
+      if (isHeartbeat(message)) {
+        heartbeat = true;
+        break;
+      }
+    }
+    if (!heartbeat) {
+      handler.received(channel, batch);
+      return;
+    }
+    MultiMessage rest = MultiMessage.create();
+    for (Object message : batch) {
+      if (!handleHeartbeat(channel, message)) {
+        rest.addMessage(message);
+      }
+    }
+    if (rest.size() == 1) {
+      handler.received(channel, rest.get(0));
+    } else if (!rest.isEmpty()) {
+      handler.received(channel, rest);
+    }
+  }
+
+  /**
+   * @return 是否是心跳，心跳在 IO 线程直接回复，不进入业务线程池
+   */
+  private boolean handleHeartbeat(NetChannel channel, Object message) throws RemotingException {
+    if (message == EventFrame.HEARTBEAT_REQUEST) {
+      channel.send(EventFrame.HEARTBEAT_RESPONSE);
+      return true;
+    }
+    if (message == EventFrame.HEARTBEAT_RESPONSE) {
+      return true;
+    }
     if (isHeartbeatRequest(message)) {
       Request req = (Request) message;
       if (req.isTwoWay()) {
@@ -60,31 +107,36 @@ public class HeartbeatHandler extends AbstractChannelHandlerDelegate {
           }
         }
       }
-      return;
+      return true;
     }
     if (isHeartbeatResponse(message)) {
       if (logger.isDebugEnabled()) {
         logger.debug("Receive heartbeat response in thread " + Thread.currentThread().getName());
       }
-      return;
+      return true;
     }
-    handler.received(channel, message);
+    return false;
+  }
+
+  private boolean isHeartbeat(Object message) {
+    return message == EventFrame.HEARTBEAT_REQUEST || message == EventFrame.HEARTBEAT_RESPONSE
+        || isHeartbeatRequest(message) || isHeartbeatResponse(message);
   }
 
   private void setReadTimestamp(NetChannel channel) {
-    channel.setAttribute(KEY_READ_TIMESTAMP, System.currentTimeMillis());
+    channel.setReadTimestamp(CachedClock.currentTimeMillis());
   }
 
   private void setWriteTimestamp(NetChannel channel) {
-    channel.setAttribute(KEY_WRITE_TIMESTAMP, System.currentTimeMillis());
+    channel.setWriteTimestamp(CachedClock.currentTimeMillis());
   }
 
   private void clearReadTimestamp(NetChannel channel) {
-    channel.removeAttribute(KEY_READ_TIMESTAMP);
+    channel.setReadTimestamp(0);
   }
 
   private void clearWriteTimestamp(NetChannel channel) {
-    channel.removeAttribute(KEY_WRITE_TIMESTAMP);
+    channel.setWriteTimestamp(0);
   }
 
   private boolean isHeartbeatRequest(Object message) {
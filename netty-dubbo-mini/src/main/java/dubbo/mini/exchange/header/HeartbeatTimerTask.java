@@ -1,6 +1,6 @@
 package dubbo.mini.exchange.header;
 
-import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.EventFrame;
 import dubbo.mini.remote.NetChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,14 +19,11 @@ public class HeartbeatTimerTask extends AbstractTimerTask {
   @Override
   protected void doTask(NetChannel channel) {
     try {
-      Long lastRead = lastRead(channel);
-      Long lastWrite = lastWrite(channel);
-      if ((lastRead != null && now() - lastRead > heartbeat)
-          || (lastWrite != null && now() - lastWrite > heartbeat)) {
-        Request req = new Request();
-        req.setTwoWay(true);
-        req.setEvent(Request.HEARTBEAT_EVENT);
-        channel.send(req);
+      long lastRead = lastRead(channel);
+      long lastWrite = lastWrite(channel);
+      if ((lastRead != 0 && now() - lastRead > heartbeat)
+          || (lastWrite != 0 && now() - lastWrite > heartbeat)) {
+        channel.send(EventFrame.HEARTBEAT_REQUEST);
         if (logger.isDebugEnabled()) {
           logger.debug("Send heartbeat to remote channel " + channel.getRemoteAddress()
               + ", cause: The channel has no data-transmission exceeds a heartbeat period: "
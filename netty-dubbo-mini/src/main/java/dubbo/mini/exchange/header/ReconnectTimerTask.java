@@ -20,8 +20,8 @@ public class ReconnectTimerTask extends AbstractTimerTask {
   @Override
   protected void doTask(NetChannel channel) {
     try {
-      Long lastRead = lastRead(channel);
-      Long now = now();
+      long lastRead = lastRead(channel);
+      long now = now();
 
       // Rely on reconnect timer to reconnect when AbstractClient.doConnect fails to init the connection
       if (!channel.isConnected()) {
@@ -32,7 +32,7 @@ public class ReconnectTimerTask extends AbstractTimerTask {
           logger.error("Fail to connect to " + channel, e);
         }
         // check pong at client
-      } else if (lastRead != null && now - lastRead > idleTimeout) {
+      } else if (lastRead != 0 && now - lastRead > idleTimeout) {
         logger.warn("Reconnect to channel " + channel + ", because heartbeat read idle time out: "
             + idleTimeout + "ms");
         try {
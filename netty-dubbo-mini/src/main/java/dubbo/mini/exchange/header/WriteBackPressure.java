@@ -0,0 +1,163 @@
+package dubbo.mini.exchange.header;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.remote.ChannelAttributeKey;
+import dubbo.mini.remote.ChannelUnwritableException;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.RemotingException;
+import dubbo.mini.support.DefaultFuture;
+import java.util.ArrayDeque;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 通道不可写（发送缓冲区超过高水位）时请求的处理，按 {@link Constants#UNWRITABLE_POLICY_KEY}：
+ * <ul>
+ * <li>block：调用线程等待通道恢复可写，最多 {@link Constants#UNWRITABLE_WAIT_KEY}，
+ * 不要在 IO 线程上发起请求，否则等不到恢复</li>
+ * <li>fail：直接抛出 {@link ChannelUnwritableException}</li>
+ * <li>queue：放入有界队列，恢复可写时由 IO 线程按顺序写出，队列满时抛出异常</li>
+ * </ul>
+ * 挂在连接的 attribute 上，每个连接一份，可写性变化由 {@link HeaderExchangeHandler} 通知。
+ */
+final class WriteBackPressure {
+
+  private static final Logger logger = LoggerFactory.getLogger(WriteBackPressure.class);
+
+  private static final ChannelAttributeKey<WriteBackPressure> BACK_PRESSURE_KEY = ChannelAttributeKey
+      .valueOf(WriteBackPressure.class.getName() + ".GATE");
+
+  private final String policy;
+
+  private final int wait;
+
+  private final int queueSize;
+
+  /**
+   * 等待写出的请求，由 this 保护
+   */
+  private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+
+  private WriteBackPressure(NetURL url) {
+    this.policy = url.getParameter(Constants.UNWRITABLE_POLICY_KEY,
+        Constants.DEFAULT_UNWRITABLE_POLICY);
+    this.wait = url.getParameter(Constants.UNWRITABLE_WAIT_KEY, Constants.DEFAULT_UNWRITABLE_WAIT);
+    this.queueSize = url.getPositiveParameter(Constants.UNWRITABLE_QUEUE_SIZE_KEY,
+        Constants.DEFAULT_UNWRITABLE_QUEUE_SIZE);
+  }
+
+  /**
+   * 只在通道第一次不可写时创建，之后复用
+   */
+  static WriteBackPressure getOrAdd(NetChannel channel) {
+    WriteBackPressure ret = channel.getAttribute(BACK_PRESSURE_KEY);
+    if (ret == null) {
+      synchronized (WriteBackPressure.class) {
+        ret = channel.getAttribute(BACK_PRESSURE_KEY);
+        if (ret == null) {
+          ret = new WriteBackPressure(channel.getUrl());
+          channel.setAttribute(BACK_PRESSURE_KEY, ret);
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * 通道可写性变化：唤醒等待的调用线程，写出排队的请求
+   */
+  static void writabilityChanged(NetChannel channel) {
+    WriteBackPressure gate = channel.getAttribute(BACK_PRESSURE_KEY);
+    if (gate != null && channel.isWritable()) {
+      gate.drain(channel);
+    }
+  }
+
+  /**
+   * 通道不可写时发送请求
+   */
+  void send(NetChannel channel, Request request, DefaultFuture future, int timeout)
+      throws RemotingException {
+    switch (policy) {
+      case Constants.UNWRITABLE_POLICY_FAIL:
+        throw unwritable(channel, request, "fail fast");
+      case Constants.UNWRITABLE_POLICY_QUEUE:
+        enqueue(channel, request, future);
+        break;
+      default:
+        if (!awaitWritable(channel, timeout > 0 ? Math.min(wait, timeout) : wait)) {
+          throw unwritable(channel, request, "still unwritable after " + wait + "ms");
+        }
+        channel.send(request);
+    }
+  }
+
+  private synchronized boolean awaitWritable(NetChannel channel, long timeout) {
+    long deadline = System.currentTimeMillis() + timeout;
+    long remaining = timeout;
+    while (!channel.isWritable() && channel.isConnected() && remaining > 0) {
+      try {
+        wait(remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      remaining = deadline - System.currentTimeMillis();
+    }
+    return channel.isWritable();
+  }
+
+  private void enqueue(NetChannel channel, Request request, DefaultFuture future)
+      throws RemotingException {
+    synchronized (this) {
+      if (queue.size() >= queueSize) {
+        throw unwritable(channel, request, "queue is full(" + queueSize + ")");
+      }
+      queue.add(new Pending(request, future));
+    }
+    // 入队前可能已经恢复可写，错过了通知
+    if (channel.isWritable()) {
+      drain(channel);
+    }
+  }
+
+  private synchronized void drain(NetChannel channel) {
+    notifyAll();
+    Pending pending;
+    while (channel.isWritable() && (pending = queue.poll()) != null) {
+      // 排队期间已经超时的不再发送
+      if (pending.future.isDone()) {
+        continue;
+      }
+      try {
+        // 在 IO 线程上，不能等待写完成
+        channel.send(pending.request, false);
+      } catch (RemotingException e) {
+        logger.warn("Failed to send queued request " + pending.request + ", cause: "
+            + e.getMessage(), e);
+        pending.future.cancel();
+      }
+    }
+  }
+
+  private static ChannelUnwritableException unwritable(NetChannel channel, Request request,
+      String reason) {
+    return new ChannelUnwritableException(channel, "Failed to send request " + request
+        + ", cause: channel " + channel.getLocalAddress() + " -> " + channel.getRemoteAddress()
+        + " is not writable, " + reason);
+  }
+
+  private static final class Pending {
+
+    final Request request;
+
+    final DefaultFuture future;
+
+    Pending(Request request, DefaultFuture future) {
+      this.request = request;
+      this.future = future;
+    }
+  }
+}
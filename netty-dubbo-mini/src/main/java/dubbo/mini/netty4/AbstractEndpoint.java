@@ -59,11 +59,6 @@ public abstract class AbstractEndpoint extends AbstractPeer implements ChannelEv
     return null;
   }
 
-  @Override
-  public void send(Object message) throws RemotingException {
-
-  }
-
   @Override
   public void send(Object message, boolean sent) throws RemotingException {
 
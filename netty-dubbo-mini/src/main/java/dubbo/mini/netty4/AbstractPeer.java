@@ -134,4 +134,12 @@ public abstract class AbstractPeer implements Endpoint, ChannelEventHandler {
   public void caught(NetChannel ch, Throwable ex) throws RemotingException {
     handler.caught(ch, ex);
   }
+
+  @Override
+  public void writabilityChanged(NetChannel ch) throws RemotingException {
+    if (closed) {
+      return;
+    }
+    handler.writabilityChanged(ch);
+  }
 }
\ No newline at end of file
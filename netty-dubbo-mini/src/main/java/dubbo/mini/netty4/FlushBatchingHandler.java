@@ -0,0 +1,137 @@
+package dubbo.mini.netty4;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * 合并 flush，减少 write 系统调用。
+ * <p>
+ * 业务线程的每次 {@link NettyChannel#send} 都是一个 writeAndFlush，这里把 flush 推迟到当前 event loop
+ * 一轮任务结束时统一执行；读事件处理过程中的 flush 推迟到 channelReadComplete。待发送的消息数或字节数达到阈值时立即
+ * flush，避免堆积。
+ * <p>
+ * 需放在 pipeline 的最前面（encoder 之前），才能统计编码后的字节数。
+ */
+final class FlushBatchingHandler extends ChannelDuplexHandler {
+
+  private final int maxPendingMessages;
+
+  private final int maxPendingBytes;
+
+  private int pendingMessages;
+
+  private long pendingBytes;
+
+  private boolean readInProgress;
+
+  private boolean flushScheduled;
+
+  private ChannelHandlerContext ctx;
+
+  private final Runnable flushTask = () -> {
+    flushScheduled = false;
+    if (pendingMessages > 0 && !readInProgress) {
+      flushNow(ctx);
+    }
+  };
+
+  FlushBatchingHandler(NetURL url) {
+    this.maxPendingMessages = url.getPositiveParameter(Constants.FLUSH_MAX_MESSAGES_KEY,
+        Constants.DEFAULT_FLUSH_MAX_MESSAGES);
+    this.maxPendingBytes = url.getPositiveParameter(Constants.FLUSH_MAX_BYTES_KEY,
+        Constants.DEFAULT_FLUSH_MAX_BYTES);
+  }
+
+  /**
+   * 是否开启 flush 合并
+   */
+  static boolean isEnabled(NetURL url) {
+    return url.getParameter(Constants.FLUSH_CONSOLIDATION_KEY, false);
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+    this.ctx = ctx;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      throws Exception {
+    if (msg instanceof ByteBuf) {
+      pendingBytes += ((ByteBuf) msg).readableBytes();
+    }
+    ctx.write(msg, promise);
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) throws Exception {
+    if (++pendingMessages >= maxPendingMessages || pendingBytes >= maxPendingBytes) {
+      flushNow(ctx);
+    } else if (!readInProgress && !flushScheduled) {
+      // 排在当前已提交的写任务之后执行，这一轮的写入只 flush 一次
+      flushScheduled = true;
+      ctx.channel().eventLoop().execute(flushTask);
+    }
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    readInProgress = true;
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+    readInProgress = false;
+    flushIfNeeded(ctx);
+    ctx.fireChannelReadComplete();
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    if (!ctx.channel().isWritable()) {
+      // 写缓冲已满，尽快把数据交给 socket
+      flushIfNeeded(ctx);
+    }
+    ctx.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+    flushIfNeeded(ctx);
+    ctx.fireExceptionCaught(cause);
+  }
+
+  @Override
+  public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    flushIfNeeded(ctx);
+    ctx.disconnect(promise);
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    flushIfNeeded(ctx);
+    ctx.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    flushIfNeeded(ctx);
+  }
+
+  private void flushIfNeeded(ChannelHandlerContext ctx) {
+    if (pendingMessages > 0) {
+      flushNow(ctx);
+    }
+  }
+
+  private void flushNow(ChannelHandlerContext ctx) {
+    pendingMessages = 0;
+    pendingBytes = 0;
+    ctx.flush();
+  }
+}
@@ -3,15 +3,17 @@ package dubbo.mini.netty4;
 
 import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
+import dubbo.mini.remote.support.ChannelAttributes;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import java.net.InetSocketAddress;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,11 +21,22 @@ public final class NettyChannel extends AbstractPeer implements NetChannel {
 
   private static final Logger logger = LoggerFactory.getLogger(NettyChannel.class);
 
-  private static final ConcurrentMap<Channel, NettyChannel> channelMap = new ConcurrentHashMap<Channel, NettyChannel>();
+  /**
+   * 包装对象挂在 Netty Channel 自己的 attribute 上，每个连接一份，收发时不用再查全局 map
+   */
+  private static final AttributeKey<NettyChannel> NETTY_CHANNEL_KEY = AttributeKey
+      .valueOf(NettyChannel.class.getName() + ".CHANNEL");
 
   private final Channel channel;
 
-  private final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+  private final ChannelAttributes attributes = new ChannelAttributes();
+
+  /**
+   * 读写时间戳每条消息都要更新，用字段而不是 attribute，避免 put 和 Long 装箱
+   */
+  private volatile long readTimestamp;
+
+  private volatile long writeTimestamp;
 
   private NettyChannel(Channel channel, NetURL url, ChannelEventHandler handler) {
     super(url, handler);
@@ -37,11 +50,12 @@ public final class NettyChannel extends AbstractPeer implements NetChannel {
     if (ch == null) {
       return null;
     }
-    NettyChannel ret = channelMap.get(ch);
+    Attribute<NettyChannel> attr = ch.attr(NETTY_CHANNEL_KEY);
+    NettyChannel ret = attr.get();
     if (ret == null) {
       NettyChannel nettyChannel = new NettyChannel(ch, url, handler);
       if (ch.isActive()) {
-        ret = channelMap.putIfAbsent(ch, nettyChannel);
+        ret = attr.setIfAbsent(nettyChannel);
       }
       if (ret == null) {
         ret = nettyChannel;
@@ -50,9 +64,20 @@ public final class NettyChannel extends AbstractPeer implements NetChannel {
     return ret;
   }
 
+  /**
+   * 发送缓冲区水位，超过高水位后 {@link #isWritable()} 为 false，由上层决定等待还是失败
+   */
+  static WriteBufferWaterMark writeBufferWaterMark(NetURL url) {
+    return new WriteBufferWaterMark(
+        url.getPositiveParameter(Constants.WRITE_BUFFER_LOW_WATER_MARK_KEY,
+            Constants.DEFAULT_WRITE_BUFFER_LOW_WATER_MARK),
+        url.getPositiveParameter(Constants.WRITE_BUFFER_HIGH_WATER_MARK_KEY,
+            Constants.DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK));
+  }
+
   static void removeChannelIfDisconnected(Channel ch) {
     if (ch != null && !ch.isActive()) {
-      channelMap.remove(ch);
+      ch.attr(NETTY_CHANNEL_KEY).set(null);
     }
   }
 
@@ -71,6 +96,31 @@ public final class NettyChannel extends AbstractPeer implements NetChannel {
     return !isClosed() && channel.isActive();
   }
 
+  @Override
+  public boolean isWritable() {
+    return channel.isWritable();
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return readTimestamp;
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    this.readTimestamp = timestamp;
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return writeTimestamp;
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    this.writeTimestamp = timestamp;
+  }
+
   @Override
   public void send(Object message, boolean sent) throws RemotingException {
     if (isClosed()) {
@@ -133,7 +183,7 @@ public final class NettyChannel extends AbstractPeer implements NetChannel {
 
   @Override
   public boolean hasAttribute(String key) {
-    return attributes.containsKey(key);
+    return attributes.contains(key);
   }
 
   @Override
@@ -143,11 +193,7 @@ public final class NettyChannel extends AbstractPeer implements NetChannel {
 
   @Override
   public void setAttribute(String key, Object value) {
-    if (value == null) { // The null value unallowed in the ConcurrentHashMap.
-      attributes.remove(key);
-    } else {
-      attributes.put(key, value);
-    }
+    attributes.set(key, value);
   }
 
   @Override
@@ -155,6 +201,21 @@ public final class NettyChannel extends AbstractPeer implements NetChannel {
     attributes.remove(key);
   }
 
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return attributes.get(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    attributes.set(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    attributes.remove(key);
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
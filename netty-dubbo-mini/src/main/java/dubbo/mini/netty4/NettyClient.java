@@ -4,21 +4,21 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import dubbo.mini.common.NetURL;
 import dubbo.mini.common.utils.NetUtils;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.ChannelHandlers;
 import dubbo.mini.remote.Client;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.timeout.IdleStateHandler;
 import java.net.InetSocketAddress;
 import java.util.concurrent.TimeUnit;
@@ -32,6 +32,11 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
   private static Logger logger = LoggerFactory.getLogger(NettyClient.class);
 
   private EventLoopGroup group;
+
+  /**
+   * 取得线程组时解析一次，之后重连沿用
+   */
+  private boolean epoll;
   private Bootstrap bootstrap;
 
   private Channel channel;
@@ -49,11 +54,17 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
 
   public void connect() {
     final NettyClientHandler nettyClientHandler = new NettyClientHandler(getUrl(), this);
-    this.group = new NioEventLoopGroup();
+    if (group == null) {
+      epoll = NettyEventLoopFactory.useEpoll(getUrl());
+      // 所有客户端共用 IO 线程，不再每个连接一个线程组
+      group = TransportResources.acquire(TransportResources.CLIENT_WORKER, getUrl(), epoll);
+    }
     this.bootstrap = new Bootstrap();
-    bootstrap.group(group)
+    bootstrap.group(TransportResources.select(group, getUrl()))
         .option(ChannelOption.SO_KEEPALIVE, true)
-        .channel(NioSocketChannel.class)
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .option(ChannelOption.WRITE_BUFFER_WATER_MARK, NettyChannel.writeBufferWaterMark(getUrl()))
+        .channel(NettyEventLoopFactory.socketChannelClass(epoll))
         .handler(new ChannelInitializer<SocketChannel>() {
           @Override
           protected void initChannel(SocketChannel ch) throws Exception {
@@ -64,6 +75,9 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
             ch.pipeline().addLast("decoder", adapter.getDecoder());
             ch.pipeline().addLast(new IdleStateHandler(0, 5, 0, TimeUnit.SECONDS));
             ch.pipeline().addLast(nettyClientHandler);
+            if (FlushBatchingHandler.isEnabled(getUrl())) {
+              ch.pipeline().addFirst("flush", new FlushBatchingHandler(getUrl()));
+            }
           }
 
           @Override
@@ -72,6 +86,8 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
           }
         });
 
+    NettyEventLoopFactory.configure(epoll, bootstrap);
+
     doConnect();
   }
 
@@ -79,7 +95,8 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
     long start = System.currentTimeMillis();
     connectLock.lock();
     try {
-      if (isConnected()) {
+      // 已关闭的客户端不再重连，线程组可能已经释放
+      if (isConnected() || isClosed()) {
         return;
       }
       ChannelFuture future = bootstrap.connect(getConnectAddress());
@@ -152,6 +169,40 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
     return channel.isConnected();
   }
 
+  @Override
+  public boolean isWritable() {
+    NetChannel channel = getChannel();
+    return channel != null && channel.isWritable();
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    NetChannel channel = getChannel();
+    return channel == null ? 0 : channel.getReadTimestamp();
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    NetChannel channel = getChannel();
+    if (channel != null) {
+      channel.setReadTimestamp(timestamp);
+    }
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    NetChannel channel = getChannel();
+    return channel == null ? 0 : channel.getWriteTimestamp();
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    NetChannel channel = getChannel();
+    if (channel != null) {
+      channel.setWriteTimestamp(timestamp);
+    }
+  }
+
   public InetSocketAddress getConnectAddress() {
     return new InetSocketAddress(NetUtils.filterLocalHost(getUrl().getHost()), getUrl().getPort());
   }
@@ -161,10 +212,39 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
     return closed;
   }
 
+  @Override
+  public void close() {
+    connectLock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    } finally {
+      connectLock.unlock();
+    }
+    super.close();
+    Channel c = channel;
+    if (c != null) {
+      c.close();
+    }
+    TransportResources.release(group);
+  }
+
   public boolean isClosing() {
     return closing && !closed;
   }
 
+  @Override
+  public void send(Object message, boolean sent) throws RemotingException {
+    NetChannel channel = getChannel();
+    if (channel == null || !channel.isConnected()) {
+      throw new RemotingException(this,
+          "message can not send, because channel is closed . url:" + getUrl());
+    }
+    channel.send(message, sent);
+  }
+
   protected NetChannel getChannel() {
     Channel c = channel;
     if (c == null || !c.isActive()) {
@@ -180,22 +260,59 @@ public class NettyClient extends AbstractEndpoint implements NetChannel, Client
 
   @Override
   public boolean hasAttribute(String key) {
-    return false;
+    NetChannel channel = getChannel();
+    return channel != null && channel.hasAttribute(key);
   }
 
   @Override
   public Object getAttribute(String key) {
-    return null;
+    NetChannel channel = getChannel();
+    if (channel == null) {
+      return null;
+    }
+    return channel.getAttribute(key);
   }
 
   @Override
   public void setAttribute(String key, Object value) {
-
+    NetChannel channel = getChannel();
+    if (channel == null) {
+      return;
+    }
+    channel.setAttribute(key, value);
   }
 
   @Override
   public void removeAttribute(String key) {
+    NetChannel channel = getChannel();
+    if (channel == null) {
+      return;
+    }
+    channel.removeAttribute(key);
+  }
 
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    NetChannel channel = getChannel();
+    return channel == null ? null : channel.getAttribute(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    NetChannel channel = getChannel();
+    if (channel == null) {
+      return;
+    }
+    channel.setAttribute(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    NetChannel channel = getChannel();
+    if (channel == null) {
+      return;
+    }
+    channel.removeAttribute(key);
   }
 
   @Override
@@ -24,11 +24,21 @@ public class NettyClientHandler extends ChannelDuplexHandler {
   @Override
   public void channelActive(ChannelHandlerContext ctx) throws Exception {
     logger.info("客户端与服务端建立连接");
+    // 连接建立时绑定 NettyChannel，之后收发直接从 Channel attribute 取
+    NettyChannel.getOrAddChannel(ctx.channel(), url, clientCnx);
   }
 
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    NettyChannel channel = NettyChannel.getOrAddChannel(ctx.channel(), url, clientCnx);
+    clientCnx.received(channel, msg);
+  }
 
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    NettyChannel channel = NettyChannel.getOrAddChannel(ctx.channel(), url, clientCnx);
+    clientCnx.writabilityChanged(channel);
+    super.channelWritabilityChanged(ctx);
   }
 
   @Override
@@ -40,6 +50,7 @@ public class NettyClientHandler extends ChannelDuplexHandler {
   @Override
   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
     logger.warn("channelInactive:{}", ctx);
+    NettyChannel.removeChannelIfDisconnected(ctx.channel());
     reConnect(ctx);
     super.channelInactive(ctx);
   }
@@ -3,10 +3,12 @@ package dubbo.mini.netty4;
 import dubbo.mini.buffer.ChannelBuffer;
 import dubbo.mini.buffer.NettyBackedChannelBuffer;
 import dubbo.mini.codec.Codec;
+import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
 import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.support.MultiMessage;
 import io.netty.buffer.ByteBuf;
-import io.netty.channel.Channel;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
@@ -28,11 +30,13 @@ public final class NettyCodecAdapter {
 
   private final ChannelEventHandler handler;
   private final NetURL url;
+  private final boolean batch;
 
   public NettyCodecAdapter(Codec codec, NetURL url, ChannelEventHandler handler) {
     this.codec = codec;
     this.url = url;
     this.handler = handler;
+    this.batch = url.getParameter(Constants.DECODE_BATCH_KEY, Constants.DEFAULT_DECODE_BATCH);
   }
 
   public ChannelHandler getEncoder() {
@@ -45,22 +49,29 @@ public final class NettyCodecAdapter {
 
   private class InternalEncoder extends MessageToByteEncoder {
 
+    /**
+     * Body 和 Header 都直接写入 {@link #allocateBuffer} 分配的池化 direct ByteBuf，不经过堆内中转。
+     */
     @Override
     protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
-//            com.alibaba.dubbo.remoting.buffer.ChannelBuffer buffer = new NettyBackedChannelBuffer(out);
       ChannelBuffer buffer = new NettyBackedChannelBuffer(out);
-      Channel ch = ctx.channel();
-//            NettyChannel channel = NettyChannel.getOrAddChannel(ch, url, handler);
-//            try {
-//                codec.encode(ctx.channel(), buffer, msg);
-//            } finally {
-////                NettyChannel.removeChannelIfDisconnected(ch);
-//            }
+      NettyChannel channel = NettyChannel.getOrAddChannel(ctx.channel(), url, handler);
+      codec.encode(channel, buffer, msg);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Object msg, boolean preferDirect)
+        throws Exception {
+      return PooledByteBufAllocator.DEFAULT.directBuffer();
     }
   }
 
   private class InternalDecoder extends ByteToMessageDecoder {
 
+    /**
+     * 同一次 decode 解出多个帧时合成一个 {@link MultiMessage}，只触发一次 channelRead，
+     * 后面的派发层可以把整批作为一个任务投递。
+     */
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf input, List<Object> out)
         throws Exception {
@@ -71,6 +82,10 @@ public final class NettyCodecAdapter {
 
       Object msg;
 
+      Object first = null;
+
+      MultiMessage batched = null;
+
       int saveReaderIndex;
 
       try {
@@ -90,14 +105,45 @@ public final class NettyCodecAdapter {
             if (saveReaderIndex == message.readerIndex()) {
               throw new IOException("Decode without read data.");
             }
-            if (msg != null) {
-              out.add(msg);
+            if (msg == null) {
+              continue;
+            }
+            if (!batch) {
+              // codec 自己合成的批（如 DubboCountCodec）也拆开逐条往下传
+              if (msg instanceof MultiMessage) {
+                for (Object one : (MultiMessage) msg) {
+                  out.add(one);
+                }
+              } else {
+                out.add(msg);
+              }
+            } else if (first == null) {
+              first = msg;
+            } else {
+              if (batched == null) {
+                batched = MultiMessage.create();
+                addTo(batched, first);
+              }
+              addTo(batched, msg);
             }
           }
         } while (message.readable());
       } finally {
+        if (batched != null) {
+          out.add(batched);
+        } else if (first != null) {
+          out.add(first);
+        }
 //                NettyChannel.removeChannelIfDisconnected(ctx.channel());
       }
     }
+
+    private void addTo(MultiMessage batched, Object msg) {
+      if (msg instanceof MultiMessage) {
+        batched.addMessages(((MultiMessage) msg).getMessages());
+      } else {
+        batched.addMessage(msg);
+      }
+    }
   }
 }
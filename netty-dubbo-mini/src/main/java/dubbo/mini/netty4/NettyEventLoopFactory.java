@@ -0,0 +1,101 @@
+package dubbo.mini.netty4;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 按 {@link Constants#NETTY_TRANSPORT_KEY} 选择 Netty 传输实现。
+ * <p>
+ * Linux 上 epoll 直接使用系统调用，少了 JDK Selector 的 SelectedKeys 集合和包装对象，
+ * 延迟和 GC 都更低；其它平台或 native 库加载失败时使用 NIO。
+ * <p>
+ * 每个端点打开时用 {@link #useEpoll(NetURL)} 解析一次，其余方法都使用解析的结果。
+ */
+final class NettyEventLoopFactory {
+
+  private static final Logger logger = LoggerFactory.getLogger(NettyEventLoopFactory.class);
+
+  private NettyEventLoopFactory() {
+  }
+
+  /**
+   * 解析传输实现，epoll 不可用而又显式指定时打印一次回退日志
+   */
+  static boolean useEpoll(NetURL url) {
+    String transport = url.getParameter(Constants.NETTY_TRANSPORT_KEY,
+        Constants.DEFAULT_NETTY_TRANSPORT);
+    if (Constants.NETTY_TRANSPORT_NIO.equals(transport)) {
+      return false;
+    }
+    if (Epoll.isAvailable()) {
+      return true;
+    }
+    if (Constants.NETTY_TRANSPORT_EPOLL.equals(transport)) {
+      logger.warn("Epoll transport is not available, fall back to nio, cause: "
+          + Epoll.unavailabilityCause());
+    }
+    return false;
+  }
+
+  static EventLoopGroup eventLoopGroup(boolean epoll, int threads, ThreadFactory threadFactory) {
+    return epoll ? new EpollEventLoopGroup(threads, threadFactory)
+        : new NioEventLoopGroup(threads, threadFactory);
+  }
+
+  static Class<? extends SocketChannel> socketChannelClass(boolean epoll) {
+    return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  static Class<? extends ServerSocketChannel> serverSocketChannelClass(boolean epoll) {
+    return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  /**
+   * 客户端连接：边缘触发，立即回 ACK
+   */
+  static void configure(boolean epoll, Bootstrap bootstrap) {
+    if (epoll) {
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+          .option(EpollChannelOption.TCP_QUICKACK, Boolean.TRUE);
+    }
+  }
+
+  /**
+   * 服务端：多个 acceptor 时打开 SO_REUSEPORT，由内核在监听 socket 之间分配新连接
+   */
+  static void configure(boolean epoll, ServerBootstrap bootstrap, int acceptors) {
+    if (epoll) {
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+          .childOption(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+          .childOption(EpollChannelOption.TCP_QUICKACK, Boolean.TRUE);
+      if (acceptors > 1) {
+        bootstrap.option(EpollChannelOption.SO_REUSEPORT, Boolean.TRUE);
+      }
+    }
+  }
+
+  /**
+   * 实际可用的 acceptor 数，SO_REUSEPORT 只在 epoll 下可用
+   */
+  static int acceptors(NetURL url, boolean epoll) {
+    int acceptors = url.getPositiveParameter(Constants.ACCEPTORS_KEY, Constants.DEFAULT_ACCEPTORS);
+    return epoll ? acceptors : 1;
+  }
+}
@@ -7,27 +7,31 @@ import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
 import dubbo.mini.common.utils.NetUtils;
 import dubbo.mini.common.utils.UrlUtils;
+import dubbo.mini.exchange.header.HeartbeatHandler;
 import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.ChannelHandlers;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
 import dubbo.mini.remote.Server;
+import dubbo.mini.remote.WrappedChannelHandler;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,22 +42,44 @@ public class NettyServer extends AbstractEndpoint implements Server {
 
   private static final Logger logger = LoggerFactory.getLogger(NettyServer.class);
 
+  private static final String SERVER_THREAD_NAME = "DubboServerHandler";
+
   private ServerBootstrap bootstrap;
 
   private Map<String, NetChannel> channels; // <ip:port, channel>
 
   private io.netty.channel.Channel channel;
 
+  /**
+   * 所有监听 socket，多个 acceptor 时不止一个
+   */
+  private final List<io.netty.channel.Channel> serverChannels = new ArrayList<>();
+
   private EventLoopGroup bossGroup;
   private EventLoopGroup workerGroup;
   private InetSocketAddress bindAddress;
   private int accepts;
   private int idleTimeout;
 
+  /**
+   * 线程派发层，{@link Constants#DISPATCHER_KEY} 为 direct 时就是业务 handler 本身
+   */
+  private final ChannelEventHandler dispatched;
+
   ExecutorService executor;
 
   public NettyServer(NetURL url, ChannelEventHandler handler) throws RemotingException {
-    super(url, handler);
+    this(ChannelHandlers.dispatch(handler,
+        url.addParameterIfAbsent(Constants.THREAD_NAME_KEY, SERVER_THREAD_NAME)), url);
+  }
+
+  private NettyServer(ChannelEventHandler dispatched, NetURL url) throws RemotingException {
+    // 请求和客户端一样经过心跳和线程派发层，在业务线程池中处理
+    super(url, new HeartbeatHandler(dispatched));
+    this.dispatched = dispatched;
+    if (dispatched instanceof WrappedChannelHandler) {
+      executor = ((WrappedChannelHandler) dispatched).getExecutor();
+    }
     String bindIp = getUrl().getParameter(Constants.BIND_IP_KEY, getUrl().getHost());
     int bindPort = getUrl().getParameter(Constants.BIND_PORT_KEY, getUrl().getPort());
     if (url.getParameter(Constants.ANYHOST_KEY, false) || NetUtils.isInvalidLocalHost(bindIp)) {
@@ -79,20 +105,30 @@ public class NettyServer extends AbstractEndpoint implements Server {
 
   public void open() throws Throwable {
     bootstrap = new ServerBootstrap();
-    bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("NettyServerBoss", true));
-    workerGroup = new NioEventLoopGroup(DEFAULT_IO_THREADS,
-        new DefaultThreadFactory("NettyServerWorker", true));
+    boolean epoll = NettyEventLoopFactory.useEpoll(getUrl());
+    int acceptors = NettyEventLoopFactory.acceptors(getUrl(), epoll);
+    bossGroup = NettyEventLoopFactory.eventLoopGroup(epoll, acceptors,
+        new DefaultThreadFactory("NettyServerBoss", true));
+    if (getUrl().getParameter(Constants.SHARE_SERVER_WORKERS_KEY, false)) {
+      workerGroup = TransportResources.acquire(TransportResources.SERVER_WORKER, getUrl(), epoll);
+    } else {
+      workerGroup = NettyEventLoopFactory.eventLoopGroup(epoll,
+          getUrl().getPositiveParameter(Constants.IO_THREADS_KEY, DEFAULT_IO_THREADS),
+          new DefaultThreadFactory(TransportResources.SERVER_WORKER, true));
+    }
     NettyServerHandler nettyServerHandler = new NettyServerHandler(getUrl(), this);
     channels = nettyServerHandler.getChannels();
 
     bootstrap.group(bossGroup, workerGroup)
-        .channel(NioServerSocketChannel.class)
+        .channel(NettyEventLoopFactory.serverSocketChannelClass(epoll))
         .childOption(ChannelOption.TCP_NODELAY, Boolean.TRUE)
         .childOption(ChannelOption.SO_REUSEADDR, Boolean.TRUE)
         .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
-        .childHandler(new ChannelInitializer<NioSocketChannel>() {
+        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+            NettyChannel.writeBufferWaterMark(getUrl()))
+        .childHandler(new ChannelInitializer<SocketChannel>() {
           @Override
-          protected void initChannel(NioSocketChannel ch) throws Exception {
+          protected void initChannel(SocketChannel ch) throws Exception {
             // FIXME: should we use getTimeout()?
 //                        int idleTimeout = UrlUtils.getIdleTimeout(getUrl());
             NettyCodecAdapter adapter = new NettyCodecAdapter(getCodec(), getUrl(),
@@ -104,15 +140,50 @@ public class NettyServer extends AbstractEndpoint implements Server {
                 .addLast("server-idle-handler",
                     new IdleStateHandler(0, 0, idleTimeout, MILLISECONDS))
                 .addLast("handler", nettyServerHandler);
+            if (FlushBatchingHandler.isEnabled(getUrl())) {
+              ch.pipeline().addFirst("flush", new FlushBatchingHandler(getUrl()));
+            }
           }
         });
 
+    NettyEventLoopFactory.configure(epoll, bootstrap, acceptors);
+
     ChannelFuture channelFuture = bootstrap.bind(bindAddress);
-//        channelFuture.syncUninterruptibly();
+    channelFuture.syncUninterruptibly();
     channel = channelFuture.channel();
+    serverChannels.add(channel);
+    // SO_REUSEPORT：同一端口再绑定几个监听 socket，每个由一个 boss 线程 accept
+    for (int i = 1; i < acceptors; i++) {
+      serverChannels.add(bootstrap.bind(channel.localAddress()).syncUninterruptibly().channel());
+    }
   }
 
 
+  @Override
+  public void close() {
+    if (isClosed()) {
+      return;
+    }
+    super.close();
+    for (io.netty.channel.Channel serverChannel : serverChannels) {
+      serverChannel.close();
+    }
+    if (channels != null) {
+      for (NetChannel ch : channels.values()) {
+        ch.close();
+      }
+    }
+    if (bossGroup != null) {
+      bossGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+    }
+    // 共享的 worker 组只减少引用
+    TransportResources.release(workerGroup);
+    // 已经提交的请求仍会执行完
+    if (dispatched instanceof WrappedChannelHandler) {
+      ((WrappedChannelHandler) dispatched).close();
+    }
+  }
+
   @Override
   public boolean isBound() {
     return false;
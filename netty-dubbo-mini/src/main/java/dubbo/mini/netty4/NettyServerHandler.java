@@ -5,6 +5,7 @@ import dubbo.mini.common.utils.NetUtils;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.NetChannel;
 import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.timeout.IdleStateEvent;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 /**
  * @author why
  */
+@Sharable
 public class NettyServerHandler extends ChannelDuplexHandler {
 
   private static Logger logger = LoggerFactory.getLogger(NettyServerHandler.class);
@@ -104,6 +106,17 @@ public class NettyServerHandler extends ChannelDuplexHandler {
     super.userEventTriggered(ctx, evt);
   }
 
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    NettyChannel channel = NettyChannel.getOrAddChannel(ctx.channel(), url, handler);
+    try {
+      handler.writabilityChanged(channel);
+    } finally {
+      NettyChannel.removeChannelIfDisconnected(ctx.channel());
+    }
+    super.channelWritabilityChanged(ctx);
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
       throws Exception {
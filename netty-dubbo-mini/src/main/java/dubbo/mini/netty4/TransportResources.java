@@ -0,0 +1,126 @@
+package dubbo.mini.netty4;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 进程内共享的 EventLoopGroup，按引用计数关闭。
+ * <p>
+ * 所有 NettyClient 共用一个 IO 线程组，线程数由第一个使用者的 {@link Constants#IO_THREADS_KEY}
+ * 决定；服务端打开 {@link Constants#SHARE_SERVER_WORKERS_KEY} 后，多个端口共用一个 worker 组。
+ * 最后一个使用者释放后线程组关闭，之后再使用会重新创建。
+ */
+final class TransportResources {
+
+  private static final Logger logger = LoggerFactory.getLogger(TransportResources.class);
+
+  static final String CLIENT_WORKER = "NettyClientWorker";
+
+  static final String SERVER_WORKER = "NettyServerWorker";
+
+  /**
+   * 名称 + 传输实现 -> 线程组，由类锁保护
+   */
+  private static final Map<String, SharedGroup> GROUPS = new HashMap<>();
+
+  private TransportResources() {
+  }
+
+  /**
+   * 获取共享线程组并增加引用，用完调用 {@link #release(EventLoopGroup)}
+   */
+  static synchronized EventLoopGroup acquire(String name, NetURL url, boolean epoll) {
+    String key = name + (epoll ? "-epoll" : "-nio");
+    int threads = url.getPositiveParameter(Constants.IO_THREADS_KEY, Constants.DEFAULT_IO_THREADS);
+    SharedGroup shared = GROUPS.get(key);
+    if (shared == null) {
+      shared = new SharedGroup(key, NettyEventLoopFactory.eventLoopGroup(epoll, threads,
+          new DefaultThreadFactory(name, true)));
+      GROUPS.put(key, shared);
+    } else if (threads != shared.loops.length) {
+      logger.warn("Shared event loop group " + key + " already started with "
+          + shared.loops.length + " threads, ignore " + Constants.IO_THREADS_KEY + "=" + threads
+          + " of " + url.getAddress());
+    }
+    shared.references++;
+    return shared.group;
+  }
+
+  static synchronized void release(EventLoopGroup group) {
+    if (group == null) {
+      return;
+    }
+    for (SharedGroup shared : GROUPS.values()) {
+      if (shared.group == group) {
+        if (--shared.references == 0) {
+          GROUPS.remove(shared.key);
+          if (logger.isInfoEnabled()) {
+            logger.info("Shut down shared event loop group " + shared.key);
+          }
+          group.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+        }
+        return;
+      }
+    }
+    // 不是共享的，直接关闭
+    group.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+  }
+
+  /**
+   * 按 {@link Constants#IO_AFFINITY_KEY} 选择注册到哪里：address 时同一对端地址固定在一个 EventLoop 上，
+   * 重连后仍由同一个线程处理；否则交给线程组轮询。
+   */
+  static synchronized EventLoopGroup select(EventLoopGroup group, NetURL url) {
+    if (!Constants.IO_AFFINITY_ADDRESS.equals(url.getParameter(Constants.IO_AFFINITY_KEY,
+        Constants.DEFAULT_IO_AFFINITY))) {
+      return group;
+    }
+    for (SharedGroup shared : GROUPS.values()) {
+      if (shared.group == group) {
+        int index = (url.getAddress().hashCode() & Integer.MAX_VALUE) % shared.loops.length;
+        return shared.loops[index];
+      }
+    }
+    return group;
+  }
+
+  /**
+   * 当前共享线程组的引用数，没有时为 0
+   */
+  static synchronized int references(String name, boolean epoll) {
+    SharedGroup shared = GROUPS.get(name + (epoll ? "-epoll" : "-nio"));
+    return shared == null ? 0 : shared.references;
+  }
+
+  private static final class SharedGroup {
+
+    final String key;
+
+    final EventLoopGroup group;
+
+    final EventLoop[] loops;
+
+    int references;
+
+    SharedGroup(String key, EventLoopGroup group) {
+      this.key = key;
+      this.group = group;
+      List<EventLoop> list = new ArrayList<>();
+      for (EventExecutor executor : group) {
+        list.add((EventLoop) executor);
+      }
+      this.loops = list.toArray(new EventLoop[0]);
+    }
+  }
+}
@@ -6,6 +6,8 @@ import dubbo.mini.common.utils.ConfigurationUtils;
 import dubbo.mini.common.utils.RpcUtils;
 import dubbo.mini.exception.RpcException;
 import dubbo.mini.exchange.ExchangeClient;
+import dubbo.mini.exchange.header.HeaderExchangeHandler;
+import dubbo.mini.remote.OverloadException;
 import dubbo.mini.remote.RemotingException;
 import dubbo.mini.remote.TimeoutException;
 import dubbo.mini.rpc.AbstractInvoker;
@@ -14,7 +16,11 @@ import dubbo.mini.rpc.Invoker;
 import dubbo.mini.rpc.Result;
 import dubbo.mini.rpc.RpcContext;
 import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.rpc.RpcResult;
+import dubbo.mini.support.ResponseFuture;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -30,6 +36,8 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
 
   private final Set<Invoker<?>> invokers;
 
+  private final OverloadBackoff backoff;
+
   public DubboInvoker(Class<T> serviceType, NetURL url, ExchangeClient[] clients) {
     this(serviceType, url, clients, null);
   }
@@ -43,6 +51,7 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
     // get version.
     this.version = url.getParameter(Constants.VERSION_KEY, "0.0.0");
     this.invokers = invokers;
+    this.backoff = new OverloadBackoff(url);
   }
 
   @Override
@@ -52,6 +61,12 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
     inv.setAttachment(Constants.PATH_KEY, getUrl().getPath());
     inv.setAttachment(Constants.VERSION_KEY, version);
 
+    if (backoff.isBackingOff()) {
+      throw new RpcException(RpcException.LIMIT_EXCEEDED_EXCEPTION,
+          "Provider is overloaded, backing off " + backoff.remainingMillis() + "ms. method: "
+              + invocation.getMethodName() + ", provider: " + getUrl());
+    }
+
     ExchangeClient currentClient;
     if (clients.length == 1) {
       currentClient = clients[0];
@@ -59,36 +74,40 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
       currentClient = clients[index.getAndIncrement() % clients.length];
     }
     try {
-//            boolean isAsync = RpcUtils.isAsync(getUrl(), invocation);
-//            boolean isAsyncFuture = RpcUtils.isReturnTypeFuture(inv);
-//            boolean isOneway = RpcUtils.isOneway(getUrl(), invocation);
+      boolean isAsync = RpcUtils.isAsync(getUrl(), invocation);
+      boolean isAsyncFuture = RpcUtils.isReturnTypeFuture(inv);
+      boolean isOneway = RpcUtils.isOneway(getUrl(), invocation);
       int timeout = getUrl()
           .getMethodParameter(methodName, Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
-//            if (isOneway) {
-//                boolean isSent = getUrl().getMethodParameter(methodName, Constants.SENT_KEY, false);
-//                currentClient.send(inv, isSent);
-//                RpcContext.getContext().setFuture(null);
-//                return new RpcResult();
-//            } else if (isAsync) {
-//                ResponseFuture future = currentClient.request(inv, timeout);
-//                // For compatibility
-//                FutureAdapter<Object> futureAdapter = new FutureAdapter<>(future);
-//                RpcContext.getContext().setFuture(futureAdapter);
-//
-//                Result result;
-//                if (isAsyncFuture) {
-//                    // register resultCallback, sometimes we need the async result being processed by the filter chain.
-//                    result = new AsyncRpcResult(futureAdapter, futureAdapter.getResultFuture(), false);
-//                } else {
-//                    result = new SimpleAsyncRpcResult(futureAdapter, futureAdapter.getResultFuture(), false);
-//                }
-//                return result;
-//            } else {
-//                RpcContext.getContext().setFuture(null);
-//                return (Result) currentClient.request(inv, timeout).get();
-//            }
-      RpcContext.getContext().setFuture(null);
-      return (Result) currentClient.request(inv, timeout).get();
+      if (isOneway) {
+        // 单向调用：以 twoWay=false 的 Request 发送，不创建 DefaultFuture，也不注册超时任务
+        boolean isSent = getUrl().getMethodParameter(methodName, Constants.SENT_KEY, false);
+        currentClient.send(inv, isSent);
+        RpcContext.getContext().setFuture(null);
+        return new RpcResult();
+      } else if (isAsync) {
+        // 不阻塞调用线程，结果通过 RpcContext 或返回值中的 CompletableFuture 获取
+        ResponseFuture future = currentClient.request(inv, timeout);
+        CompletableFuture<Result> resultFuture = future.getCompletableFuture();
+        resultFuture.whenComplete((result, t) -> onResponse(t));
+        CompletableFuture<Object> valueFuture = resultFuture.thenApply(DubboInvoker::recreate);
+        RpcContext.getContext().setFuture(valueFuture);
+        if (isAsyncFuture) {
+          // 方法返回值本身就是 CompletableFuture，直接交给调用方
+          return new RpcResult(valueFuture);
+        }
+        return new RpcResult();
+      } else {
+        RpcContext.getContext().setFuture(null);
+        Result result = (Result) currentClient.request(inv, timeout).get();
+        backoff.onSuccess();
+        return result;
+      }
+    } catch (OverloadException e) {
+      backoff.onOverload();
+      throw new RpcException(RpcException.LIMIT_EXCEEDED_EXCEPTION,
+          "Provider is overloaded. method: " + invocation.getMethodName() + ", provider: "
+              + getUrl() + ", cause: " + e.getMessage(), e);
     } catch (TimeoutException e) {
       throw new RpcException(RpcException.TIMEOUT_EXCEPTION,
           "Invoke remote method timeout. method: " + invocation.getMethodName() + ", provider: "
@@ -100,13 +119,29 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
     }
   }
 
+  private void onResponse(Throwable t) {
+    Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    if (cause instanceof OverloadException) {
+      backoff.onOverload();
+    } else if (cause == null) {
+      backoff.onSuccess();
+    }
+  }
+
+  private static Object recreate(Result result) {
+    if (result.hasException()) {
+      throw new CompletionException(result.getException());
+    }
+    return result.getValue();
+  }
+
   @Override
   public boolean isAvailable() {
     if (!super.isAvailable()) {
       return false;
     }
     for (ExchangeClient client : clients) {
-      if (client.isConnected() && !client.hasAttribute(Constants.CHANNEL_ATTRIBUTE_READONLY_KEY)) {
+      if (client.isConnected() && client.getAttribute(HeaderExchangeHandler.READONLY_KEY) == null) {
         //cannot write == not Available ?
         return true;
       }
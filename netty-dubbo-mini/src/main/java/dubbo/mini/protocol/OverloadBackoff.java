@@ -0,0 +1,61 @@
+package dubbo.mini.protocol;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个 provider 的过载退避状态。
+ * <p>
+ * 收到 SERVER_OVERLOADED / SERVER_THREADPOOL_EXHAUSTED_ERROR 后，在退避窗口内直接失败，不再发送请求；
+ * 连续过载时窗口指数增长（带随机抖动），收到正常响应后清零。
+ */
+final class OverloadBackoff {
+
+  private final long baseNanos;
+
+  private final long maxNanos;
+
+  private final AtomicInteger overloads = new AtomicInteger();
+
+  private volatile long deadline;
+
+  OverloadBackoff(NetURL url) {
+    this.baseNanos = TimeUnit.MILLISECONDS.toNanos(
+        url.getPositiveParameter(Constants.OVERLOAD_BACKOFF_KEY,
+            Constants.DEFAULT_OVERLOAD_BACKOFF));
+    this.maxNanos = Math.max(baseNanos, TimeUnit.MILLISECONDS.toNanos(
+        url.getPositiveParameter(Constants.OVERLOAD_MAX_BACKOFF_KEY,
+            Constants.DEFAULT_OVERLOAD_MAX_BACKOFF)));
+  }
+
+  boolean isBackingOff() {
+    return overloads.get() > 0 && deadline - System.nanoTime() > 0;
+  }
+
+  /**
+   * @return 剩余的退避时间，毫秒
+   */
+  long remainingMillis() {
+    return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+  }
+
+  void onOverload() {
+    int n = overloads.incrementAndGet();
+    long delay = baseNanos << Math.min(n - 1, 20);
+    if (delay <= 0 || delay > maxNanos) {
+      delay = maxNanos;
+    }
+    // 抖动到 [delay/2, delay]，避免所有消费端同时恢复
+    delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    deadline = System.nanoTime() + delay;
+  }
+
+  void onSuccess() {
+    if (overloads.get() != 0) {
+      overloads.set(0);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import dubbo.mini.common.NetURL;
 import dubbo.mini.exception.RpcException;
 import dubbo.mini.exchange.ExchangeClient;
 import dubbo.mini.exchange.header.HeaderExchangeClient;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
@@ -118,6 +119,35 @@ class ChannelWrappedInvoker<T> extends AbstractInvoker<T> {
       return channel != null && channel.isConnected();
     }
 
+    @Override
+    public boolean isWritable() {
+      return channel != null && channel.isWritable();
+    }
+
+    @Override
+    public long getReadTimestamp() {
+      return channel == null ? 0 : channel.getReadTimestamp();
+    }
+
+    @Override
+    public void setReadTimestamp(long timestamp) {
+      if (!(channel == null)) {
+        channel.setReadTimestamp(timestamp);
+      }
+    }
+
+    @Override
+    public long getWriteTimestamp() {
+      return channel == null ? 0 : channel.getWriteTimestamp();
+    }
+
+    @Override
+    public void setWriteTimestamp(long timestamp) {
+      if (!(channel == null)) {
+        channel.setWriteTimestamp(timestamp);
+      }
+    }
+
     @Override
     public boolean hasAttribute(String key) {
       return channel.hasAttribute(key);
@@ -138,6 +168,21 @@ class ChannelWrappedInvoker<T> extends AbstractInvoker<T> {
       channel.removeAttribute(key);
     }
 
+    @Override
+    public <T> T getAttribute(ChannelAttributeKey<T> key) {
+      return channel.getAttribute(key);
+    }
+
+    @Override
+    public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+      channel.setAttribute(key, value);
+    }
+
+    @Override
+    public void removeAttribute(ChannelAttributeKey<?> key) {
+      channel.removeAttribute(key);
+    }
+
     @Override
     public void reconnect() throws RemotingException {
 
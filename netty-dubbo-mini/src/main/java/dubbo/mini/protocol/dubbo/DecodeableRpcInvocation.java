@@ -4,7 +4,6 @@ import static dubbo.mini.protocol.dubbo.CallbackServiceCodec.decodeInvocationArg
 
 import dubbo.mini.codec.CodecSupport;
 import dubbo.mini.common.Constants;
-import dubbo.mini.common.utils.ReflectUtils;
 import dubbo.mini.common.utils.StringUtils;
 import dubbo.mini.exchange.Request;
 import dubbo.mini.remote.Decodeable;
@@ -59,6 +58,30 @@ public class DecodeableRpcInvocation extends RpcInvocation implements Decodeable
         request.setData(e);
       } finally {
         hasDecoded = true;
+        closeInputStream();
+      }
+    }
+  }
+
+  @Override
+  public void discard() {
+    if (!hasDecoded) {
+      hasDecoded = true;
+      closeInputStream();
+    }
+  }
+
+  /**
+   * 延迟解码时输入流持有 ByteBuf 切片，解码完成或放弃解码后释放
+   */
+  private void closeInputStream() {
+    InputStream is = inputStream;
+    inputStream = null;
+    if (is != null) {
+      try {
+        is.close();
+      } catch (IOException e) {
+        log.warn("Close input stream failed: " + e.getMessage(), e);
       }
     }
   }
@@ -71,19 +94,16 @@ public class DecodeableRpcInvocation extends RpcInvocation implements Decodeable
     ObjectInput in = CodecSupport.getSerialization(channel.getUrl(), serializationType)
         .deserialize(channel.getUrl(), input);
 
-    setAttachment(Constants.PATH_KEY, in.readUTF());
-    setAttachment(Constants.VERSION_KEY, in.readUTF());
+    String path = in.readUTF();
+    String version = in.readUTF();
 
     setMethodName(in.readUTF());
     try {
       Object[] args;
-      Class<?>[] pts;
-      String desc = in.readUTF();
-      if (desc.length() == 0) {
-        pts = DubboCodec.EMPTY_CLASS_ARRAY;
+      Class<?>[] pts = InvocationDecodeCache.get(channel).getParameterTypes(in.readUTF());
+      if (pts.length == 0) {
         args = DubboCodec.EMPTY_OBJECT_ARRAY;
       } else {
-        pts = ReflectUtils.desc2classArray(desc);
         args = new Object[pts.length];
         for (int i = 0; i < args.length; i++) {
           try {
@@ -98,13 +118,18 @@ public class DecodeableRpcInvocation extends RpcInvocation implements Decodeable
       setParameterTypes(pts);
 
       Map<String, String> map = (Map<String, String>) in.readObject(Map.class);
-      if (map != null && map.size() > 0) {
-        Map<String, String> attachment = getAttachments();
-        if (attachment == null) {
-          attachment = new HashMap<>();
+      Map<String, String> attachment = getAttachments();
+      if (map instanceof HashMap && (attachment == null || attachment.isEmpty())) {
+        // 反序列化出的 map 只属于当前请求，直接作为 attachments，省去一次拷贝；请求中的值优先
+        map.putIfAbsent(Constants.PATH_KEY, path);
+        map.putIfAbsent(Constants.VERSION_KEY, version);
+        setAttachments(map);
+      } else {
+        setAttachment(Constants.PATH_KEY, path);
+        setAttachment(Constants.VERSION_KEY, version);
+        if (map != null && map.size() > 0) {
+          getAttachments().putAll(map);
         }
-        attachment.putAll(map);
-        setAttachments(attachment);
       }
       //decode argument ,may be callback
       for (int i = 0; i < args.length; i++) {
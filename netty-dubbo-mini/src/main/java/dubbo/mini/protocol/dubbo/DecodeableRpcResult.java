@@ -99,6 +99,30 @@ public class DecodeableRpcResult extends RpcResult implements Decodeable {
         response.setErrorMessage(StringUtils.toString(e));
       } finally {
         hasDecoded = true;
+        closeInputStream();
+      }
+    }
+  }
+
+  @Override
+  public void discard() {
+    if (!hasDecoded) {
+      hasDecoded = true;
+      closeInputStream();
+    }
+  }
+
+  /**
+   * 延迟解码时输入流持有 ByteBuf 切片，解码完成或放弃解码后释放
+   */
+  private void closeInputStream() {
+    InputStream is = inputStream;
+    inputStream = null;
+    if (is != null) {
+      try {
+        is.close();
+      } catch (IOException e) {
+        log.warn("Close input stream failed: " + e.getMessage(), e);
       }
     }
   }
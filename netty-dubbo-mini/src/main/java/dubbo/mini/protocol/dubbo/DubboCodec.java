@@ -2,6 +2,7 @@ package dubbo.mini.protocol.dubbo;
 
 import static dubbo.mini.protocol.dubbo.CallbackServiceCodec.encodeInvocationArgument;
 
+import dubbo.mini.codec.ChannelBufferInputStream;
 import dubbo.mini.codec.CodecSupport;
 import dubbo.mini.codec.ExchangeCodec;
 import dubbo.mini.common.Constants;
@@ -16,6 +17,7 @@ import dubbo.mini.remote.NetChannel;
 import dubbo.mini.rpc.Invocation;
 import dubbo.mini.rpc.Result;
 import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.serialize.Cleanable;
 import dubbo.mini.serialize.ObjectInput;
 import dubbo.mini.serialize.ObjectOutput;
 import java.io.IOException;
@@ -54,30 +56,36 @@ public class DubboCodec extends ExchangeCodec {
       res.setStatus(status);
       try {
         ObjectInput in = CodecSupport.deserialize(channel.getUrl(), is, proto);
-        if (status == Response.OK) {
-          Object data;
-          if (res.isHeartbeat()) {
-            data = decodeHeartbeatData(channel, in);
-          } else if (res.isEvent()) {
-            data = decodeEventData(channel, in);
-          } else {
-            DecodeableRpcResult result;
-            if (channel.getUrl().getParameter(
-                Constants.DECODE_IN_IO_THREAD_KEY,
-                Constants.DEFAULT_DECODE_IN_IO_THREAD)) {
-              result = new DecodeableRpcResult(channel, res, is,
-                  (Invocation) getRequestData(id), proto);
-              result.decode();
+        try {
+          if (status == Response.OK) {
+            Object data;
+            if (res.isHeartbeat()) {
+              data = decodeHeartbeatData(channel, in);
+            } else if (res.isEvent()) {
+              data = decodeEventData(channel, in);
             } else {
-              result = new DecodeableRpcResult(channel, res,
-                  new UnsafeByteArrayInputStream(readMessageData(is)),
-                  (Invocation) getRequestData(id), proto);
+              DecodeableRpcResult result;
+              if (channel.getUrl().getParameter(
+                  Constants.DECODE_IN_IO_THREAD_KEY,
+                  Constants.DEFAULT_DECODE_IN_IO_THREAD)) {
+                result = new DecodeableRpcResult(channel, res, is,
+                    (Invocation) getRequestData(channel, id), proto);
+                result.decode();
+              } else {
+                result = new DecodeableRpcResult(channel, res,
+                    retainMessageData(is),
+                    (Invocation) getRequestData(channel, id), proto);
+              }
+              data = result;
             }
-            data = result;
+            res.setResult(data);
+          } else {
+            res.setErrorMessage(in.readUTF());
+          }
+        } finally {
+          if (in instanceof Cleanable) {
+            ((Cleanable) in).cleanup();
           }
-          res.setResult(data);
-        } else {
-          res.setErrorMessage(in.readUTF());
         }
       } catch (Throwable t) {
         if (log.isWarnEnabled()) {
@@ -90,31 +98,38 @@ public class DubboCodec extends ExchangeCodec {
     } else {
       // decode request.
       Request req = new Request(id);
+      req.setArriveTime(System.nanoTime());
       req.setTwoWay((flag & FLAG_TWOWAY) != 0);
       if ((flag & FLAG_EVENT) != 0) {
         req.setEvent(true);
       }
       try {
-        Object data;
         ObjectInput in = CodecSupport.deserialize(channel.getUrl(), is, proto);
-        if (req.isHeartbeat()) {
-          data = decodeHeartbeatData(channel, in);
-        } else if (req.isEvent()) {
-          data = decodeEventData(channel, in);
-        } else {
-          DecodeableRpcInvocation inv;
-          if (channel.getUrl().getParameter(
-              Constants.DECODE_IN_IO_THREAD_KEY,
-              Constants.DEFAULT_DECODE_IN_IO_THREAD)) {
-            inv = new DecodeableRpcInvocation(channel, req, is, proto);
-            inv.decode();
+        try {
+          Object data;
+          if (req.isHeartbeat()) {
+            data = decodeHeartbeatData(channel, in);
+          } else if (req.isEvent()) {
+            data = decodeEventData(channel, in);
           } else {
-            inv = new DecodeableRpcInvocation(channel, req,
-                new UnsafeByteArrayInputStream(readMessageData(is)), proto);
+            DecodeableRpcInvocation inv;
+            if (channel.getUrl().getParameter(
+                Constants.DECODE_IN_IO_THREAD_KEY,
+                Constants.DEFAULT_DECODE_IN_IO_THREAD)) {
+              inv = new DecodeableRpcInvocation(channel, req, is, proto);
+              inv.decode();
+            } else {
+              inv = new DecodeableRpcInvocation(channel, req,
+                  retainMessageData(is), proto);
+            }
+            data = inv;
+          }
+          req.setData(data);
+        } finally {
+          if (in instanceof Cleanable) {
+            ((Cleanable) in).cleanup();
           }
-          data = inv;
         }
-        req.setData(data);
       } catch (Throwable t) {
         if (log.isWarnEnabled()) {
           log.warn("Decode request failed: " + t.getMessage(), t);
@@ -128,6 +143,17 @@ public class DubboCodec extends ExchangeCodec {
     }
   }
 
+  /**
+   * 延迟解码时，保留消息体的 ByteBuf 切片交给业务线程，不拷贝一份 byte[]。
+   * 切片在 {@link DecodeableRpcInvocation#decode()} / {@link DecodeableRpcResult#decode()} 之后释放。
+   */
+  private InputStream retainMessageData(InputStream is) throws IOException {
+    if (is instanceof ChannelBufferInputStream) {
+      return ((ChannelBufferInputStream) is).retainRemaining();
+    }
+    return new UnsafeByteArrayInputStream(readMessageData(is));
+  }
+
   private byte[] readMessageData(InputStream is) throws IOException {
     if (is.available() > 0) {
       byte[] result = new byte[is.available()];
@@ -165,10 +191,13 @@ public class DubboCodec extends ExchangeCodec {
     if (th == null) {
       Object ret = result.getValue();
       if (ret == null) {
+        out.writeByte(RESPONSE_NULL_VALUE);
       } else {
+        out.writeByte(RESPONSE_VALUE);
         out.writeObject(ret);
       }
     } else {
+      out.writeByte(RESPONSE_WITH_EXCEPTION);
       out.writeObject(th);
     }
   }
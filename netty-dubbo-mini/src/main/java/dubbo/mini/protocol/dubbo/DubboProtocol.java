@@ -318,6 +318,10 @@ public class DubboProtocol extends AbstractProtocol {
       connections = Integer.parseInt(StringUtils.isEmpty(shareConnectionsStr) ? ConfigUtils
           .getProperty(Constants.SHARE_CONNECTIONS_KEY,
               Constants.DEFAULT_SHARE_CONNECTIONS) : shareConnectionsStr);
+      // 配置了连接数上限时，按在途请求自动扩缩共享连接
+      if (url.getParameter(Constants.MAX_CONNECTIONS_KEY, 0) > connections) {
+        return new ExchangeClient[]{getElasticClient(url, connections)};
+      }
       shareClients = getSharedClient(url, connections);
     }
 
@@ -386,6 +390,29 @@ public class DubboProtocol extends AbstractProtocol {
   }
 
 
+  private final Map<String, ElasticExchangeClient> elasticClientMap = new ConcurrentHashMap<>();
+
+  private ExchangeClient getElasticClient(NetURL url, int minConnections) {
+    String key = url.getAddress();
+    ElasticExchangeClient client = elasticClientMap.get(key);
+    if (client != null && client.retain()) {
+      return client;
+    }
+
+    locks.putIfAbsent(key, new Object());
+    synchronized (locks.get(key)) {
+      client = elasticClientMap.get(key);
+      if (client == null || !client.retain()) {
+        client = new ElasticExchangeClient(url, minConnections, () -> initClient(url),
+            c -> elasticClientMap.remove(key, c));
+        elasticClientMap.put(key, client);
+      }
+      locks.remove(key);
+      return client;
+    }
+  }
+
+
   private boolean checkClientCanUse(
       List<ReferenceCountExchangeClient> referenceCountExchangeClients) {
     if (CollectionUtils.isEmpty(referenceCountExchangeClients)) {
@@ -0,0 +1,498 @@
+package dubbo.mini.protocol.dubbo;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.timer.CachedClock;
+import dubbo.mini.common.timer.HashedWheelTimer;
+import dubbo.mini.common.timer.Timeout;
+import dubbo.mini.common.timer.TimerTask;
+import dubbo.mini.common.utils.ConfigurationUtils;
+import dubbo.mini.exchange.ExchangeClient;
+import dubbo.mini.exchange.ExchangeHandler;
+import dubbo.mini.remote.ChannelAttributeKey;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.OverloadException;
+import dubbo.mini.remote.RemotingException;
+import dubbo.mini.support.NamedThreadFactory;
+import dubbo.mini.support.ResponseFuture;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 同一地址的共享连接池，按在途请求数选择连接。
+ * <p>
+ * 每个连接有一个在途请求窗口（{@link Constants#INFLIGHT_WINDOW_KEY}），请求发往在途数最少的连接；
+ * 发送缓冲区超过高水位的连接暂时不选；已连接的连接窗口都满时在后台新建连接，直到 {@link Constants#MAX_CONNECTIONS_KEY}，
+ * 新连接建好之前请求继续发往在途数最少的连接；已到上限仍然满则抛出 {@link OverloadException}，由调用方退避。连接全部断开时不扩容，请求交给第一个连接，由它重连或快速失败。
+ * 多出来的连接空闲超过 {@link Constants#CONNECTION_IDLE_TIMEOUT_KEY} 后逐个移出连接池，等在途请求完成后关闭，
+ * 至少保留初始的连接数。
+ * <p>
+ * 和 {@link ReferenceCountExchangeClient} 一样按引用计数关闭。
+ */
+final class ElasticExchangeClient implements ExchangeClient {
+
+  private static final Logger logger = LoggerFactory.getLogger(ElasticExchangeClient.class);
+
+  private static final HashedWheelTimer SHRINK_TIMER = new HashedWheelTimer(
+      new NamedThreadFactory("dubbo-client-shrink", true), 1, TimeUnit.SECONDS,
+      Constants.TICKS_PER_WHEEL);
+
+  /**
+   * 建连会阻塞到连接完成或超时，不放在调用线程和锁里
+   */
+  private static final ExecutorService GROW_EXECUTOR = Executors
+      .newCachedThreadPool(new NamedThreadFactory("dubbo-client-grow", true));
+
+  private final NetURL url;
+
+  private final Supplier<ExchangeClient> factory;
+
+  private final Consumer<ElasticExchangeClient> onClosed;
+
+  private final List<PooledConnection> connections = new CopyOnWriteArrayList<>();
+
+  private final int minConnections;
+
+  private final int maxConnections;
+
+  private final int window;
+
+  private final int idleTimeout;
+
+  private final AtomicInteger referenceCount = new AtomicInteger(1);
+
+  private final AtomicBoolean growing = new AtomicBoolean();
+
+  private volatile boolean closed;
+
+  private volatile Timeout shrinkTimeout;
+
+  /**
+   * @param onClosed 引用全部释放、连接池关闭后回调
+   */
+  ElasticExchangeClient(NetURL url, int minConnections, Supplier<ExchangeClient> factory,
+      Consumer<ElasticExchangeClient> onClosed) {
+    this.url = url;
+    this.factory = factory;
+    this.onClosed = onClosed;
+    this.minConnections = Math.max(minConnections, 1);
+    this.maxConnections = Math.max(url.getParameter(Constants.MAX_CONNECTIONS_KEY, 0),
+        this.minConnections);
+    this.window = url.getPositiveParameter(Constants.INFLIGHT_WINDOW_KEY,
+        Constants.DEFAULT_INFLIGHT_WINDOW);
+    this.idleTimeout = url.getPositiveParameter(Constants.CONNECTION_IDLE_TIMEOUT_KEY,
+        Constants.DEFAULT_CONNECTION_IDLE_TIMEOUT);
+    for (int i = 0; i < this.minConnections; i++) {
+      connections.add(new PooledConnection(factory.get()));
+    }
+    scheduleShrink();
+  }
+
+  /**
+   * 增加一次引用，已关闭时返回 false
+   */
+  boolean retain() {
+    for (; ; ) {
+      int count = referenceCount.get();
+      if (count <= 0) {
+        return false;
+      }
+      if (referenceCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 释放一次引用，只有释放最后一个引用的调用返回 true；多余的 close 不会再关闭一次
+   */
+  private boolean release() {
+    for (; ; ) {
+      int count = referenceCount.get();
+      if (count <= 0) {
+        return false;
+      }
+      if (referenceCount.compareAndSet(count, count - 1)) {
+        return count == 1;
+      }
+    }
+  }
+
+  int getConnectionCount() {
+    return connections.size();
+  }
+
+  @Override
+  public ResponseFuture request(Object request) throws RemotingException {
+    return request(request,
+        url.getPositiveParameter(Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT));
+  }
+
+  @Override
+  public ResponseFuture request(Object request, int timeout) throws RemotingException {
+    PooledConnection connection = acquire();
+    ResponseFuture future;
+    try {
+      future = connection.client.request(request, timeout);
+    } catch (RemotingException | RuntimeException e) {
+      connection.inflight.decrementAndGet();
+      throw e;
+    }
+    future.getCompletableFuture().whenComplete((r, t) -> connection.inflight.decrementAndGet());
+    return future;
+  }
+
+  @Override
+  public void send(Object message) throws RemotingException {
+    send(message, url.getParameter(Constants.SENT_KEY, false));
+  }
+
+  @Override
+  public void send(Object message, boolean sent) throws RemotingException {
+    PooledConnection connection = acquire();
+    try {
+      connection.client.send(message, sent);
+    } finally {
+      connection.inflight.decrementAndGet();
+    }
+  }
+
+  /**
+   * 选出连接并计入在途数。选中后被收缩移出的连接不再使用，重新选择：
+   * 收缩先标记 retired 再看在途数，这里先加在途数再看 retired，两边总有一方能看到对方。
+   */
+  private PooledConnection acquire() throws RemotingException {
+    for (; ; ) {
+      PooledConnection connection = select();
+      connection.inflight.incrementAndGet();
+      if (!connection.retired) {
+        connection.lastActive = CachedClock.currentTimeMillis();
+        return connection;
+      }
+      connection.inflight.decrementAndGet();
+    }
+  }
+
+  /**
+   * 选在途请求最少的已连接连接；已连接的连接都达到窗口时在后台扩容，新连接建好之前仍用这个连接。
+   */
+  private PooledConnection select() throws RemotingException {
+    PooledConnection best = leastLoaded();
+    if (best != null && best.inflight.get() < window) {
+      return best;
+    }
+    if (!isConnected()) {
+      // 都没有连上（断开或延迟连接），新建连接大概率也连不上，不扩容；
+      // 交给第一个连接，由它重连或快速失败
+      return primary();
+    }
+    if (grow() && best != null) {
+      return best;
+    }
+    throw new OverloadException(best != null ? best.client : primary().client, "All "
+        + connections.size() + " connections to " + url.getAddress()
+        + " reached in-flight window " + window + " or are not writable");
+  }
+
+  private PooledConnection leastLoaded() {
+    PooledConnection best = null;
+    int min = Integer.MAX_VALUE;
+    for (PooledConnection connection : connections) {
+      // 发送缓冲区超过高水位的连接和窗口已满一样对待
+      if (!connection.client.isConnected() || !connection.client.isWritable()) {
+        continue;
+      }
+      int inflight = connection.inflight.get();
+      if (inflight < min) {
+        min = inflight;
+        best = connection;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return 正在或已经开始新建连接时返回 true，同一时间只新建一个
+   */
+  private boolean grow() {
+    if (closed || connections.size() >= maxConnections) {
+      return false;
+    }
+    if (growing.compareAndSet(false, true)) {
+      try {
+        GROW_EXECUTOR.execute(this::openConnection);
+      } catch (RuntimeException e) {
+        growing.set(false);
+        logger.warn("Failed to open additional connection to " + url.getAddress() + ", cause: "
+            + e.getMessage(), e);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void openConnection() {
+    try {
+      ExchangeClient client = factory.get();
+      synchronized (this) {
+        if (closed) {
+          client.close();
+          return;
+        }
+        connections.add(new PooledConnection(client));
+      }
+      if (logger.isInfoEnabled()) {
+        logger.info("In-flight window " + window + " saturated, open connection "
+            + connections.size() + "/" + maxConnections + " to " + url.getAddress());
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Failed to open additional connection to " + url.getAddress() + ", cause: "
+          + e.getMessage(), e);
+    } finally {
+      growing.set(false);
+    }
+  }
+
+  /**
+   * 每次最多移出一个空闲的额外连接，避免抖动
+   */
+  synchronized void shrink() {
+    long now = CachedClock.currentTimeMillis();
+    for (int i = connections.size() - 1; i >= minConnections; i--) {
+      PooledConnection connection = connections.get(i);
+      if (connection.inflight.get() == 0 && now - connection.lastActive > idleTimeout) {
+        // 先移出不再被选中，再等刚选中它的请求完成后关闭
+        connections.remove(i);
+        connection.retired = true;
+        if (logger.isInfoEnabled()) {
+          logger.info("Close idle connection to " + url.getAddress() + ", "
+              + connections.size() + " left");
+        }
+        closeWhenDrained(connection, now + ConfigurationUtils.getServerShutdownTimeout());
+        return;
+      }
+    }
+  }
+
+  private void closeWhenDrained(PooledConnection connection, long deadline) {
+    if (connection.inflight.get() > 0 && CachedClock.currentTimeMillis() < deadline) {
+      SHRINK_TIMER.newTimeout(t -> closeWhenDrained(connection, deadline), 1, TimeUnit.SECONDS);
+      return;
+    }
+    connection.client.close();
+  }
+
+  private void scheduleShrink() {
+    if (closed || maxConnections <= minConnections) {
+      return;
+    }
+    shrinkTimeout = SHRINK_TIMER.newTimeout(new ShrinkTask(),
+        Math.max(idleTimeout / 2, 1000), TimeUnit.MILLISECONDS);
+  }
+
+  private PooledConnection primary() {
+    return connections.get(0);
+  }
+
+  @Override
+  public void reset(NetURL url) {
+    for (PooledConnection connection : connections) {
+      connection.client.reset(url);
+    }
+  }
+
+  @Override
+  public NetURL getUrl() {
+    return url;
+  }
+
+  @Override
+  public InetSocketAddress getRemoteAddress() {
+    return primary().client.getRemoteAddress();
+  }
+
+  @Override
+  public ChannelEventHandler getChannelHandler() {
+    return primary().client.getChannelHandler();
+  }
+
+  @Override
+  public boolean isConnected() {
+    for (PooledConnection connection : connections) {
+      if (connection.client.isConnected()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean isWritable() {
+    for (PooledConnection connection : connections) {
+      if (connection.client.isWritable()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return primary().client.getReadTimestamp();
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    primary().client.setReadTimestamp(timestamp);
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return primary().client.getWriteTimestamp();
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    primary().client.setWriteTimestamp(timestamp);
+  }
+
+  @Override
+  public void reconnect() throws RemotingException {
+    for (PooledConnection connection : connections) {
+      connection.client.reconnect();
+    }
+  }
+
+  @Override
+  public InetSocketAddress getLocalAddress() {
+    return primary().client.getLocalAddress();
+  }
+
+  @Override
+  public boolean hasAttribute(String key) {
+    return primary().client.hasAttribute(key);
+  }
+
+  @Override
+  public ExchangeHandler getExchangeHandler() {
+    return primary().client.getExchangeHandler();
+  }
+
+  @Override
+  public Object getAttribute(String key) {
+    return primary().client.getAttribute(key);
+  }
+
+  @Override
+  public void setAttribute(String key, Object value) {
+    for (PooledConnection connection : connections) {
+      connection.client.setAttribute(key, value);
+    }
+  }
+
+  @Override
+  public void removeAttribute(String key) {
+    for (PooledConnection connection : connections) {
+      connection.client.removeAttribute(key);
+    }
+  }
+
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return primary().client.getAttribute(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    for (PooledConnection connection : connections) {
+      connection.client.setAttribute(key, value);
+    }
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    for (PooledConnection connection : connections) {
+      connection.client.removeAttribute(key);
+    }
+  }
+
+  @Override
+  public void close() {
+    close(0);
+  }
+
+  @Override
+  public void close(int timeout) {
+    if (!release()) {
+      return;
+    }
+    synchronized (this) {
+      closed = true;
+    }
+    Timeout t = shrinkTimeout;
+    if (t != null) {
+      t.cancel();
+    }
+    for (PooledConnection connection : connections) {
+      if (timeout == 0) {
+        connection.client.close();
+      } else {
+        connection.client.close(timeout);
+      }
+    }
+    onClosed.accept(this);
+  }
+
+  @Override
+  public void startClose() {
+    for (PooledConnection connection : connections) {
+      connection.client.startClose();
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  private static final class PooledConnection {
+
+    final ExchangeClient client;
+
+    final AtomicInteger inflight = new AtomicInteger();
+
+    volatile long lastActive = CachedClock.currentTimeMillis();
+
+    /**
+     * 已被收缩移出连接池
+     */
+    volatile boolean retired;
+
+    PooledConnection(ExchangeClient client) {
+      this.client = client;
+    }
+  }
+
+  private class ShrinkTask implements TimerTask {
+
+    @Override
+    public void run(Timeout timeout) {
+      try {
+        shrink();
+      } catch (Throwable t) {
+        logger.warn("Failed to shrink connections to " + url.getAddress(), t);
+      }
+      scheduleShrink();
+    }
+  }
+}
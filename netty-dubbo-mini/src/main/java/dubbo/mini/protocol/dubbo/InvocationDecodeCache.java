@@ -0,0 +1,58 @@
+package dubbo.mini.protocol.dubbo;
+
+import dubbo.mini.common.utils.ReflectUtils;
+import dubbo.mini.remote.ChannelAttributeKey;
+import dubbo.mini.remote.NetChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 单个连接上的调用元数据缓存。
+ * <p>
+ * 同一连接上的请求通常只涉及少量服务和方法，参数描述符在每个请求中重复出现。
+ * 这里把参数描述符解析后的 {@code Class<?>[]} 缓存起来，省去 {@link ReflectUtils#desc2classArray(String)}
+ * 每次的正则匹配和类查找。
+ * <p>
+ * 缓存条目有上限，超过后不再缓存，防止异常的客户端撑爆内存。
+ */
+final class InvocationDecodeCache {
+
+  private static final ChannelAttributeKey<InvocationDecodeCache> CACHE_KEY = ChannelAttributeKey
+      .valueOf("dubbo.invocation.decode.cache");
+
+  private static final int MAX_ENTRIES = 256;
+
+  private final ConcurrentMap<String, Class<?>[]> parameterTypes = new ConcurrentHashMap<>();
+
+  static InvocationDecodeCache get(NetChannel channel) {
+    InvocationDecodeCache cache = channel.getAttribute(CACHE_KEY);
+    if (cache == null) {
+      synchronized (InvocationDecodeCache.class) {
+        cache = channel.getAttribute(CACHE_KEY);
+        if (cache == null) {
+          cache = new InvocationDecodeCache();
+          channel.setAttribute(CACHE_KEY, cache);
+        }
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * 解析参数描述符，返回缓存数组的拷贝，调用方修改不影响后面的请求
+   */
+  Class<?>[] getParameterTypes(String desc) throws ClassNotFoundException {
+    if (desc.length() == 0) {
+      return DubboCodec.EMPTY_CLASS_ARRAY;
+    }
+    Class<?>[] types = parameterTypes.get(desc);
+    if (types == null) {
+      types = ReflectUtils.desc2classArray(desc);
+      if (parameterTypes.size() < MAX_ENTRIES) {
+        parameterTypes.putIfAbsent(desc, types.clone());
+      }
+      return types;
+    }
+    return types.clone();
+  }
+}
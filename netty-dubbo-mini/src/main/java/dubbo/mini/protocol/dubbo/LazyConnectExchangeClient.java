@@ -6,6 +6,7 @@ import dubbo.mini.common.utils.NetUtils;
 import dubbo.mini.exchange.ExchangeClient;
 import dubbo.mini.exchange.ExchangeHandler;
 import dubbo.mini.exchange.Exchangers;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.RemotingException;
 import dubbo.mini.support.ResponseFuture;
@@ -118,6 +119,36 @@ final class LazyConnectExchangeClient implements ExchangeClient {
     }
   }
 
+  @Override
+  public boolean isWritable() {
+    // 还没有连接时没有待写的数据
+    return client == null || client.isWritable();
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return client == null ? 0 : client.getReadTimestamp();
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    if (!(client == null)) {
+      client.setReadTimestamp(timestamp);
+    }
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return client == null ? 0 : client.getWriteTimestamp();
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    if (!(client == null)) {
+      client.setWriteTimestamp(timestamp);
+    }
+  }
+
   @Override
   public InetSocketAddress getLocalAddress() {
     if (client == null) {
@@ -207,6 +238,23 @@ final class LazyConnectExchangeClient implements ExchangeClient {
     client.removeAttribute(key);
   }
 
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return client == null ? null : client.getAttribute(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    checkClient();
+    client.setAttribute(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    checkClient();
+    client.removeAttribute(key);
+  }
+
   @Override
   public boolean hasAttribute(String key) {
     if (client == null) {
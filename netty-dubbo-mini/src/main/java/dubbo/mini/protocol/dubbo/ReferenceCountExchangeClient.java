@@ -5,6 +5,7 @@ import dubbo.mini.common.NetURL;
 import dubbo.mini.common.URLBuilder;
 import dubbo.mini.exchange.ExchangeClient;
 import dubbo.mini.exchange.ExchangeHandler;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.RemotingException;
 import dubbo.mini.support.ResponseFuture;
@@ -59,6 +60,31 @@ final class ReferenceCountExchangeClient implements ExchangeClient {
     return client.isConnected();
   }
 
+  @Override
+  public boolean isWritable() {
+    return client.isWritable();
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return client.getReadTimestamp();
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    client.setReadTimestamp(timestamp);
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return client.getWriteTimestamp();
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    client.setWriteTimestamp(timestamp);
+  }
+
   @Override
   public void reconnect() throws RemotingException {
     client.reconnect();
@@ -104,6 +130,21 @@ final class ReferenceCountExchangeClient implements ExchangeClient {
     client.removeAttribute(key);
   }
 
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return client.getAttribute(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    client.setAttribute(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    client.removeAttribute(key);
+  }
+
   /**
    * close() is not idempotent any longer
    */
@@ -43,4 +43,9 @@ public abstract class AbstractChannelHandlerDelegate implements ChannelHandlerDe
   public void caught(NetChannel channel, Throwable exception) throws RemotingException {
     handler.caught(channel, exception);
   }
+
+  @Override
+  public void writabilityChanged(NetChannel channel) throws RemotingException {
+    handler.writabilityChanged(channel);
+  }
 }
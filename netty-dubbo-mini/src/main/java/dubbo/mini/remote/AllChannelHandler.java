@@ -2,10 +2,8 @@ package dubbo.mini.remote;
 
 import dubbo.mini.common.NetURL;
 import dubbo.mini.dispatcher.ChannelEventRunnable;
-import dubbo.mini.exchange.Request;
-import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.support.MultiMessage;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.RejectedExecutionException;
 
 public class AllChannelHandler extends WrappedChannelHandler {
 
@@ -39,25 +37,24 @@ public class AllChannelHandler extends WrappedChannelHandler {
 
   @Override
   public void received(NetChannel channel, Object message) throws RemotingException {
+    if (message instanceof MultiMessage) {
+      // 剩下的都需要投递，不再走下面的就地处理
+      message = receivedInline(channel, (MultiMessage) message);
+      if (message == null) {
+        return;
+      }
+    } else if (isInlineMessage(message)) {
+      handler.received(channel, message);
+      return;
+    }
     ExecutorService executor = getExecutorService();
     try {
       executor.execute(
           new ChannelEventRunnable(channel, handler, ChannelEventRunnable.ChannelState.RECEIVED,
               message));
     } catch (Throwable t) {
-      //TODO A temporary solution to the problem that the exception information can not be sent to the opposite end after the thread pool is full. Need a refactoring
-      //fix The thread pool is full, refuses to call, does not return, and causes the consumer to wait for time out
-      if (message instanceof Request && t instanceof RejectedExecutionException) {
-        Request request = (Request) message;
-        if (request.isTwoWay()) {
-          String msg = "Server side(" + url.getIp() + "," + url.getPort()
-              + ") threadpool is exhausted ,detail msg:" + t.getMessage();
-          Response response = new Response(request.getId());
-          response.setStatus(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR);
-          response.setErrorMessage(msg);
-          channel.send(response);
-          return;
-        }
+      if (sendFeedback(channel, message, t)) {
+        return;
       }
       throw new ExecutionException(message, channel,
           getClass() + " error when process received event .", t);
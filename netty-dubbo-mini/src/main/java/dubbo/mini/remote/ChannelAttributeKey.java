@@ -0,0 +1,67 @@
+package dubbo.mini.remote;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带类型的通道属性键。
+ * <p>
+ * 每个名字注册一次，分配一个固定下标，通道按下标把值存在数组里，读取只是一次数组访问，
+ * 不用再对字符串做 hash 查找。热点属性（每次收发都要取的）用它声明成静态常量；
+ * 注册之后，用同一个名字调用字符串版的 attribute 方法，访问的也是同一个槽位。
+ */
+public final class ChannelAttributeKey<T> {
+
+  private static final ConcurrentMap<String, ChannelAttributeKey<?>> KEYS = new ConcurrentHashMap<>();
+
+  private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+  private final String name;
+
+  private final int index;
+
+  private ChannelAttributeKey(String name, int index) {
+    this.name = name;
+    this.index = index;
+  }
+
+  /**
+   * 获取或注册属性键，同名返回同一个实例
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> ChannelAttributeKey<T> valueOf(String name) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("name == null");
+    }
+    return (ChannelAttributeKey<T>) KEYS
+        .computeIfAbsent(name, n -> new ChannelAttributeKey<>(n, NEXT_INDEX.getAndIncrement()));
+  }
+
+  /**
+   * 按名字查找已注册的键，没有时返回 null
+   */
+  public static ChannelAttributeKey<?> find(String name) {
+    return name == null ? null : KEYS.get(name);
+  }
+
+  /**
+   * 已注册的键个数，通道按它分配初始槽位
+   */
+  public static int size() {
+    return NEXT_INDEX.get();
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public int index() {
+    return index;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -14,4 +14,9 @@ public interface ChannelEventHandler {
 
 
   void caught(NetChannel channel, Throwable exception) throws RemotingException;
+
+  /**
+   * 发送缓冲区越过高水位或回落到低水位，通过 {@link NetChannel#isWritable()} 查看当前状态
+   */
+  void writabilityChanged(NetChannel channel) throws RemotingException;
 }
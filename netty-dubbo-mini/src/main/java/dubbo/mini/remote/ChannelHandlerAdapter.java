@@ -22,4 +22,8 @@ public class ChannelHandlerAdapter implements ChannelEventHandler {
   public void caught(NetChannel channel, Throwable exception) throws RemotingException {
   }
 
+  @Override
+  public void writabilityChanged(NetChannel channel) throws RemotingException {
+  }
+
 }
@@ -95,4 +95,15 @@ public class ChannelHandlerDispatcher implements ChannelEventHandler {
     }
   }
 
+  @Override
+  public void writabilityChanged(NetChannel channel) {
+    for (ChannelEventHandler listener : channelHandlers) {
+      try {
+        listener.writabilityChanged(channel);
+      } catch (Throwable t) {
+        logger.error(t.getMessage(), t);
+      }
+    }
+  }
+
 }
@@ -1,7 +1,11 @@
 package dubbo.mini.remote;
 
+import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
+import dubbo.mini.dispatcher.AllDispatcher;
+import dubbo.mini.dispatcher.Dispatcher;
 import dubbo.mini.exchange.header.HeartbeatHandler;
+import dubbo.mini.support.ExtensionLoader;
 
 public class ChannelHandlers {
 
@@ -14,6 +18,14 @@ public class ChannelHandlers {
     return ChannelHandlers.getInstance().wrapInternal(handler, url);
   }
 
+  /**
+   * 只加线程派发层，不加心跳处理。需要自己持有派发层（比如关闭时关闭线程池）的端点使用，
+   * 之后再套上 {@link HeartbeatHandler}
+   */
+  public static ChannelEventHandler dispatch(ChannelEventHandler handler, NetURL url) {
+    return ChannelHandlers.getInstance().dispatchInternal(handler, url);
+  }
+
   protected static ChannelHandlers getInstance() {
     return INSTANCE;
   }
@@ -23,8 +35,13 @@ public class ChannelHandlers {
   }
 
   protected ChannelEventHandler wrapInternal(ChannelEventHandler handler, NetURL url) {
-    return new MultiMessageHandler(
-        new HeartbeatHandler(
-            new AllChannelHandler(handler, url)));
+    return new HeartbeatHandler(dispatchInternal(handler, url));
+  }
+
+  protected ChannelEventHandler dispatchInternal(ChannelEventHandler handler, NetURL url) {
+    // MultiMessage 整批穿过心跳和派发层，到线程池任务里再拆开
+    return ExtensionLoader.getExtensionLoader(Dispatcher.class)
+        .getExtension(url.getParameter(Constants.DISPATCHER_KEY, AllDispatcher.NAME))
+        .dispatch(new MultiMessageHandler(handler), url);
   }
 }
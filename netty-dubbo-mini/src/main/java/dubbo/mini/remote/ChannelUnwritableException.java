@@ -0,0 +1,14 @@
+package dubbo.mini.remote;
+
+/**
+ * 通道发送缓冲区超过高水位，请求没有写出。和服务端过载一样，调用方可以退避或换其它连接。
+ */
+public class ChannelUnwritableException extends OverloadException {
+
+  private static final long serialVersionUID = 3361047252859106419L;
+
+  public ChannelUnwritableException(NetChannel channel, String message) {
+    super(channel, message);
+  }
+
+}
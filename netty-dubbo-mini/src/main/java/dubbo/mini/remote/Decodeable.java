@@ -4,4 +4,9 @@ public interface Decodeable {
 
   public void decode() throws Exception;
 
+  /**
+   * 不再解码，释放延迟解码时保留的资源。例如线程池拒绝了该消息。
+   */
+  public void discard();
+
 }
\ No newline at end of file
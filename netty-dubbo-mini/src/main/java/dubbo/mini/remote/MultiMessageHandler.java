@@ -2,6 +2,12 @@ package dubbo.mini.remote;
 
 import dubbo.mini.remote.support.MultiMessage;
 
+/**
+ * 把解码层合并的 {@link MultiMessage} 拆开，逐条交给下一个 handler。
+ * <p>
+ * 放在线程派发层之后，整批在同一个任务里拆开；一条消息处理失败不影响同批的其他消息，
+ * 处理完后再抛出第一个异常。
+ */
 public class MultiMessageHandler extends AbstractChannelHandlerDelegate {
 
   public MultiMessageHandler(ChannelEventHandler handler) {
@@ -13,8 +19,20 @@ public class MultiMessageHandler extends AbstractChannelHandlerDelegate {
   public void received(NetChannel channel, Object message) throws RemotingException {
     if (message instanceof MultiMessage) {
       MultiMessage list = (MultiMessage) message;
+      Exception failure = null;
       for (Object obj : list) {
-        handler.received(channel, obj);
+        try {
+          handler.received(channel, obj);
+        } catch (RemotingException | RuntimeException e) {
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      }
+      if (failure instanceof RemotingException) {
+        throw (RemotingException) failure;
+      } else if (failure != null) {
+        throw (RuntimeException) failure;
       }
     } else {
       handler.received(channel, message);
@@ -8,6 +8,25 @@ public interface NetChannel extends Endpoint {
 
   boolean isConnected();
 
+  /**
+   * 发送缓冲区是否低于高水位，不可写时继续写入只会堆积在堆外内存
+   */
+  boolean isWritable();
+
+  /**
+   * 最后一次读到数据的时间，没有时为 0
+   */
+  long getReadTimestamp();
+
+  void setReadTimestamp(long timestamp);
+
+  /**
+   * 最后一次写出数据的时间，没有时为 0
+   */
+  long getWriteTimestamp();
+
+  void setWriteTimestamp(long timestamp);
+
   boolean hasAttribute(String key);
 
   Object getAttribute(String key);
@@ -15,4 +34,13 @@ public interface NetChannel extends Endpoint {
   void setAttribute(String key, Object value);
 
   void removeAttribute(String key);
+
+  /**
+   * 按类型键读取属性，热点属性用这组方法，避免字符串查找
+   */
+  <T> T getAttribute(ChannelAttributeKey<T> key);
+
+  <T> void setAttribute(ChannelAttributeKey<T> key, T value);
+
+  void removeAttribute(ChannelAttributeKey<?> key);
 }
@@ -0,0 +1,14 @@
+package dubbo.mini.remote;
+
+/**
+ * 服务端过载，请求被限流或线程池已满，没有执行。调用方可以安全地退避或重试其它节点。
+ */
+public class OverloadException extends RemotingException {
+
+  private static final long serialVersionUID = -4129571843720813956L;
+
+  public OverloadException(NetChannel channel, String message) {
+    super(channel, message);
+  }
+
+}
@@ -1,12 +1,18 @@
 package dubbo.mini.remote;
 
 import dubbo.mini.ThreadPool.AbortPolicyWithReport;
+import dubbo.mini.ThreadPool.VirtualThreadExecutor;
 import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.EventFrame;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.support.MultiMessage;
 import dubbo.mini.support.NamedThreadFactory;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -32,10 +38,21 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
     executor = getExecutor(url);
   }
 
-  private ExecutorService getExecutor(NetURL url) {
+  protected ExecutorService getExecutor(NetURL url) {
+    return createExecutor(url, url.getParameter(Constants.QUEUES_KEY, Constants.DEFAULT_QUEUES));
+  }
+
+  /**
+   * 按 {@link Constants#THREADPOOL_KEY} 创建业务线程池：virtual 时为虚拟线程，否则为固定大小线程池
+   *
+   * @param queues 固定线程池的队列长度，0 为不排队，负数为无界
+   */
+  protected static ExecutorService createExecutor(NetURL url, int queues) {
     String name = url.getParameter(Constants.THREAD_NAME_KEY, Constants.DEFAULT_THREAD_NAME);
+    if (VirtualThreadExecutor.NAME.equals(url.getParameter(Constants.THREADPOOL_KEY))) {
+      return new VirtualThreadExecutor(name, url);
+    }
     int threads = url.getParameter(Constants.THREADS_KEY, Constants.DEFAULT_THREADS);
-    int queues = url.getParameter(Constants.QUEUES_KEY, Constants.DEFAULT_QUEUES);
     return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
         queues == 0 ? new SynchronousQueue<Runnable>() :
             (queues < 0 ? new LinkedBlockingQueue<Runnable>()
@@ -78,6 +95,12 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
     handler.caught(channel, exception);
   }
 
+  @Override
+  public void writabilityChanged(NetChannel channel) throws RemotingException {
+    // 只是状态通知，不进线程池
+    handler.writabilityChanged(channel);
+  }
+
   public ExecutorService getExecutor() {
     return executor;
   }
@@ -103,4 +126,84 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
     return cexecutor;
   }
 
+  private static void discardUndecoded(Object message) {
+    Object data = message;
+    if (message instanceof Request) {
+      data = ((Request) message).getData();
+    } else if (message instanceof Response) {
+      data = ((Response) message).getResult();
+    }
+    if (data instanceof Decodeable) {
+      ((Decodeable) data).discard();
+    }
+  }
+
+  /**
+   * 响应只用于完成 DefaultFuture，事件帧只设置通道属性，直接在 IO 线程处理，省去一次线程切换。
+   */
+  protected boolean isInlineMessage(Object message) {
+    return message instanceof Response || message instanceof EventFrame;
+  }
+
+  /**
+   * 解码层合并的一批消息：可以在 IO 线程处理的就地处理，剩下的由调用方作为一个任务投递。
+   *
+   * @return 需要投递的消息，只剩一条时返回这条消息本身，没有时返回 null
+   */
+  protected Object receivedInline(NetChannel channel, MultiMessage batch)
+      throws RemotingException {
+    MultiMessage rest = null;
+    for (int i = 0; i < batch.size(); i++) {
+      Object message = batch.get(i);
+      if (isInlineMessage(message)) {
+        if (rest == null) {
+          rest = MultiMessage.create();
+          for (int j = 0; j < i; j++) {
+            rest.addMessage(batch.get(j));
+          }
+        }
+        handler.received(channel, message);
+      } else if (rest != null) {
+        rest.addMessage(message);
+      }
+    }
+    if (rest == null) {
+      return batch;
+    }
+    return rest.isEmpty() ? null : (rest.size() == 1 ? rest.get(0) : rest);
+  }
+
+  /**
+   * 线程池满时，直接给需要响应的请求返回 SERVER_THREADPOOL_EXHAUSTED_ERROR，避免调用方一直等到超时。
+   *
+   * @return 是否已经返回了响应，一批消息时要求每条都已响应
+   */
+  protected boolean sendFeedback(NetChannel channel, Object message, Throwable t)
+      throws RemotingException {
+    if (message instanceof MultiMessage) {
+      boolean all = true;
+      for (Object one : (MultiMessage) message) {
+        all &= sendFeedback(channel, one, t);
+      }
+      return all;
+    }
+    // 没有投递出去的消息不会再被 DecodeHandler 解码
+    discardUndecoded(message);
+    //TODO A temporary solution to the problem that the exception information can not be sent to the opposite end after the thread pool is full. Need a refactoring
+    //fix The thread pool is full, refuses to call, does not return, and causes the consumer to wait for time out
+    if (message instanceof Request && t instanceof RejectedExecutionException) {
+      Request request = (Request) message;
+      if (request.isTwoWay()) {
+        String msg = "Server side(" + url.getIp() + "," + url.getPort()
+            + ") threadpool is exhausted ,detail msg:" + t.getMessage();
+        Response response = new Response(request.getId());
+        response.setStatus(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR);
+        response.setErrorMessage(msg);
+        channel.send(response);
+        return true;
+      }
+    }
+    return false;
+  }
+
 }
@@ -0,0 +1,94 @@
+package dubbo.mini.remote.support;
+
+import dubbo.mini.remote.ChannelAttributeKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 通道属性存储。
+ * <p>
+ * {@link ChannelAttributeKey} 注册过的属性存在按下标访问的数组里，读不加锁；
+ * 其余字符串属性仍放在 map 中。写入很少（大多是连接上第一次用到时），
+ * 在锁内进行，这样扩容复制数组时不会丢失并发写入的值。
+ */
+public final class ChannelAttributes {
+
+  private volatile AtomicReferenceArray<Object> slots =
+      new AtomicReferenceArray<>(ChannelAttributeKey.size());
+
+  private final Map<String, Object> named = new ConcurrentHashMap<>();
+
+  @SuppressWarnings("unchecked")
+  public <T> T get(ChannelAttributeKey<T> key) {
+    return (T) slot(key.index());
+  }
+
+  public <T> void set(ChannelAttributeKey<T> key, T value) {
+    setSlot(key.index(), value);
+  }
+
+  public void remove(ChannelAttributeKey<?> key) {
+    setSlot(key.index(), null);
+  }
+
+  public boolean contains(String name) {
+    ChannelAttributeKey<?> key = ChannelAttributeKey.find(name);
+    return key != null ? slot(key.index()) != null : named.containsKey(name);
+  }
+
+  public Object get(String name) {
+    ChannelAttributeKey<?> key = ChannelAttributeKey.find(name);
+    return key != null ? slot(key.index()) : named.get(name);
+  }
+
+  /**
+   * 名字已注册为 {@link ChannelAttributeKey} 时写入对应槽位，值的类型需要和键一致
+   */
+  public void set(String name, Object value) {
+    ChannelAttributeKey<?> key = ChannelAttributeKey.find(name);
+    if (key != null) {
+      setSlot(key.index(), value);
+    } else if (value == null) { // The null value unallowed in the ConcurrentHashMap.
+      named.remove(name);
+    } else {
+      named.put(name, value);
+    }
+  }
+
+  public void remove(String name) {
+    ChannelAttributeKey<?> key = ChannelAttributeKey.find(name);
+    if (key != null) {
+      setSlot(key.index(), null);
+    } else {
+      named.remove(name);
+    }
+  }
+
+  public synchronized void clear() {
+    slots = new AtomicReferenceArray<>(ChannelAttributeKey.size());
+    named.clear();
+  }
+
+  private Object slot(int index) {
+    AtomicReferenceArray<Object> s = slots;
+    return index < s.length() ? s.get(index) : null;
+  }
+
+  private synchronized void setSlot(int index, Object value) {
+    AtomicReferenceArray<Object> s = slots;
+    if (index >= s.length()) {
+      if (value == null) {
+        return;
+      }
+      // 通道创建之后才注册的键，按当前注册数扩容
+      AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(
+          Math.max(index + 1, ChannelAttributeKey.size()));
+      for (int i = 0; i < s.length(); i++) {
+        grown.set(i, s.get(i));
+      }
+      slots = s = grown;
+    }
+    s.set(index, value);
+  }
+}
@@ -2,6 +2,8 @@ package dubbo.mini.serialize;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.pool.KryoFactory;
 import com.esotericsoftware.kryo.serializers.DefaultSerializers;
 import de.javakaffee.kryoserializers.ArraysAsListSerializer;
@@ -29,6 +31,7 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
@@ -38,7 +41,14 @@ import java.util.regex.Pattern;
 
 public abstract class AbstractKryoFactory implements KryoFactory {
 
-  private final Set<Class> registrations = new LinkedHashSet<Class>();
+  protected static final int BUFFER_SIZE = 4096;
+
+  /**
+   * 超过该大小的 Input/Output 不再复用，避免偶尔的大消息长期占用内存
+   */
+  protected static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
+  private final Set<Class<?>> registrations = new LinkedHashSet<>();
 
   private boolean registrationRequired;
 
@@ -53,7 +63,7 @@ public abstract class AbstractKryoFactory implements KryoFactory {
    * <p>
    * later may consider adding support for custom serializer, custom id, etc
    */
-  public void registerClass(Class clazz) {
+  public void registerClass(Class<?> clazz) {
 
     if (kryoCreated) {
       throw new IllegalStateException("Can't register class after creating kryo instance");
@@ -111,15 +121,26 @@ public abstract class AbstractKryoFactory implements KryoFactory {
     kryo.register(float[].class);
     kryo.register(double[].class);
 
-    for (Class clazz : registrations) {
+    for (Class<?> clazz : registrations) {
       kryo.register(clazz);
     }
 
+    Map<Class<?>, Integer> ids = SerializableClassRegistry.getRegisteredIds();
     SerializableClassRegistry.getRegisteredClasses().forEach((clazz, ser) -> {
-      if (ser == null) {
-        kryo.register(clazz);
+      Integer id = ids.get(clazz);
+      if (id == null) {
+        if (ser == null) {
+          kryo.register(clazz);
+        } else {
+          kryo.register(clazz, ser);
+        }
       } else {
-        kryo.register(clazz, (Serializer) ser);
+        // 指定 id 的类在两端不依赖注册顺序
+        if (ser == null) {
+          kryo.register(clazz, id);
+        } else {
+          kryo.register(clazz, ser, id);
+        }
       }
     });
 
@@ -133,4 +154,34 @@ public abstract class AbstractKryoFactory implements KryoFactory {
   public abstract void returnKryo(Kryo kryo);
 
   public abstract Kryo getKryo();
+
+  /**
+   * 获取 Output，使用完后调用 {@link #returnOutput(Output)} 归还
+   */
+  public Output getOutput() {
+    return new Output(BUFFER_SIZE, -1);
+  }
+
+  public void returnOutput(Output output) {
+    // do nothing
+  }
+
+  /**
+   * 获取 Input，使用完后调用 {@link #returnInput(Input)} 归还
+   */
+  public Input getInput() {
+    return new Input(BUFFER_SIZE);
+  }
+
+  public void returnInput(Input input) {
+    // do nothing
+  }
+
+  protected static boolean isReusable(Output output) {
+    return output.getBuffer().length <= MAX_POOLED_BUFFER_SIZE;
+  }
+
+  protected static boolean isReusable(Input input) {
+    return input.getBuffer().length <= MAX_POOLED_BUFFER_SIZE;
+  }
 }
@@ -0,0 +1,84 @@
+package dubbo.mini.serialize;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kryo、Input、Output 都从共享池中借出，适合线程数多（例如虚拟线程）或线程生命周期短的场景，
+ * 实例数量与并发数相关，而不是线程数。
+ */
+public class PooledKryoFactory extends AbstractKryoFactory {
+
+  private static final int MAX_POOLED_BUFFERS = 256;
+
+  private final KryoPool pool = new KryoPool.Builder(this).softReferences().build();
+
+  private final Queue<Output> outputs = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger outputCount = new AtomicInteger();
+
+  private final Queue<Input> inputs = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger inputCount = new AtomicInteger();
+
+  @Override
+  public void returnKryo(Kryo kryo) {
+    pool.release(kryo);
+  }
+
+  @Override
+  public Kryo getKryo() {
+    return pool.borrow();
+  }
+
+  @Override
+  public Output getOutput() {
+    Output output = outputs.poll();
+    if (output == null) {
+      return super.getOutput();
+    }
+    outputCount.decrementAndGet();
+    return output;
+  }
+
+  @Override
+  public void returnOutput(Output output) {
+    output.setOutputStream(null);
+    if (!isReusable(output)) {
+      return;
+    }
+    if (outputCount.incrementAndGet() > MAX_POOLED_BUFFERS) {
+      outputCount.decrementAndGet();
+      return;
+    }
+    outputs.offer(output);
+  }
+
+  @Override
+  public Input getInput() {
+    Input input = inputs.poll();
+    if (input == null) {
+      return super.getInput();
+    }
+    inputCount.decrementAndGet();
+    return input;
+  }
+
+  @Override
+  public void returnInput(Input input) {
+    input.setInputStream(null);
+    if (!isReusable(input)) {
+      return;
+    }
+    if (inputCount.incrementAndGet() > MAX_POOLED_BUFFERS) {
+      inputCount.decrementAndGet();
+      return;
+    }
+    inputs.offer(input);
+  }
+}
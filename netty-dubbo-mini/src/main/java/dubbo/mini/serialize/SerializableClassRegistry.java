@@ -7,14 +7,16 @@ import java.util.Map;
 public abstract class SerializableClassRegistry {
 
 
-  private static final Map<Class, Object> registrations = new LinkedHashMap<>();
+  private static final Map<Class<?>, Serializer<?>> registrations = new LinkedHashMap<>();
+
+  private static final Map<Class<?>, Integer> ids = new LinkedHashMap<>();
 
   /**
    * only supposed to be called at startup time
    *
    * @param clazz object type
    */
-  public static void registerClass(Class clazz) {
+  public static void registerClass(Class<?> clazz) {
     registerClass(clazz, null);
   }
 
@@ -24,19 +26,45 @@ public abstract class SerializableClassRegistry {
    * @param clazz      object type
    * @param serializer object serializer
    */
-  public static void registerClass(Class clazz, Serializer serializer) {
+  public static void registerClass(Class<?> clazz, Serializer<?> serializer) {
     if (clazz == null) {
       throw new IllegalArgumentException("Class registered to kryo cannot be null!");
     }
     registrations.put(clazz, serializer);
   }
 
+  /**
+   * only supposed to be called at startup time
+   * <p>
+   * 指定注册 id，两端按 id 对应，与注册顺序无关。kryo 内置类型占用了 0~9 及其后的部分 id，建议从 100 开始
+   *
+   * @param clazz      object type
+   * @param id         registration id
+   * @param serializer object serializer, may be null
+   */
+  public static void registerClass(Class<?> clazz, int id, Serializer<?> serializer) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Registration id must be positive, but was " + id);
+    }
+    registerClass(clazz, serializer);
+    ids.put(clazz, id);
+  }
+
   /**
    * get registered classes
    *
    * @return class serializer
    */
-  public static Map<Class, Object> getRegisteredClasses() {
+  public static Map<Class<?>, Serializer<?>> getRegisteredClasses() {
     return registrations;
   }
+
+  /**
+   * get registration ids of classes registered with a fixed id
+   *
+   * @return class id
+   */
+  public static Map<Class<?>, Integer> getRegisteredIds() {
+    return ids;
+  }
 }
@@ -1,6 +1,8 @@
 package dubbo.mini.serialize;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 
 public class ThreadLocalKryoFactory extends AbstractKryoFactory {
 
@@ -11,6 +13,13 @@ public class ThreadLocalKryoFactory extends AbstractKryoFactory {
     }
   };
 
+  /**
+   * 每个线程缓存一个 Output/Input，借出时清空，嵌套使用时另外创建
+   */
+  private final ThreadLocal<Output> outputs = new ThreadLocal<>();
+
+  private final ThreadLocal<Input> inputs = new ThreadLocal<>();
+
   @Override
   public void returnKryo(Kryo kryo) {
     // do nothing
@@ -20,4 +29,40 @@ public class ThreadLocalKryoFactory extends AbstractKryoFactory {
   public Kryo getKryo() {
     return holder.get();
   }
+
+  @Override
+  public Output getOutput() {
+    Output output = outputs.get();
+    if (output == null) {
+      return super.getOutput();
+    }
+    outputs.set(null);
+    return output;
+  }
+
+  @Override
+  public void returnOutput(Output output) {
+    output.setOutputStream(null);
+    if (isReusable(output)) {
+      outputs.set(output);
+    }
+  }
+
+  @Override
+  public Input getInput() {
+    Input input = inputs.get();
+    if (input == null) {
+      return super.getInput();
+    }
+    inputs.set(null);
+    return input;
+  }
+
+  @Override
+  public void returnInput(Input input) {
+    input.setInputStream(null);
+    if (isReusable(input)) {
+      inputs.set(input);
+    }
+  }
 }
@@ -25,13 +25,21 @@ import java.lang.reflect.Type;
 
 public class Hessian2ObjectInput implements ObjectInput {
 
-  private final Hessian2Input mH2i;
+  private final ResettableHessian2Input mH2i;
 
   public Hessian2ObjectInput(InputStream is) {
-    mH2i = new Hessian2Input(is);
+    mH2i = new ResettableHessian2Input(is);
     mH2i.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
   }
 
+  /**
+   * 清空引用表和类定义表，和 {@link Hessian2ObjectOutput#resetReferences()} 对应，
+   * 用于在同一个流上读取一个个单独编码的对象。
+   */
+  public void resetReferences() {
+    mH2i.resetDefinitions();
+  }
+
   @Override
   public boolean readBool() throws IOException {
     return mH2i.readBoolean();
@@ -94,4 +102,21 @@ public class Hessian2ObjectInput implements ObjectInput {
     return readObject(cls);
   }
 
+
+  private static final class ResettableHessian2Input extends Hessian2Input {
+
+    ResettableHessian2Input(InputStream is) {
+      super(is);
+    }
+
+    void resetDefinitions() {
+      resetReferences();
+      if (_classDefs != null) {
+        _classDefs.clear();
+      }
+      if (_types != null) {
+        _types.clear();
+      }
+    }
+  }
 }
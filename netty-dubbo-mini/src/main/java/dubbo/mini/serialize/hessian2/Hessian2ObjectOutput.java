@@ -18,11 +18,12 @@ package dubbo.mini.serialize.hessian2;
 
 
 import com.alibaba.com.caucho.hessian.io.Hessian2Output;
+import dubbo.mini.serialize.Cleanable;
 import dubbo.mini.serialize.ObjectOutput;
 import java.io.IOException;
 import java.io.OutputStream;
 
-public class Hessian2ObjectOutput implements ObjectOutput {
+public class Hessian2ObjectOutput implements ObjectOutput, Cleanable {
 
   private final Hessian2Output mH2o;
 
@@ -31,6 +32,17 @@ public class Hessian2ObjectOutput implements ObjectOutput {
     mH2o.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
   }
 
+  private Hessian2ObjectOutput(ReusableHessian2Output h2o) {
+    mH2o = h2o;
+  }
+
+  /**
+   * 使用当前线程缓存的 Hessian2Output，写完后需调用 {@link #cleanup()} 归还。
+   */
+  public static Hessian2ObjectOutput reusable(OutputStream os) {
+    return new Hessian2ObjectOutput(ReusableHessian2Output.borrow(os));
+  }
+
   @Override
   public void writeBool(boolean v) throws IOException {
     mH2o.writeBoolean(v);
@@ -90,4 +102,23 @@ public class Hessian2ObjectOutput implements ObjectOutput {
   public void flushBuffer() throws IOException {
     mH2o.flushBuffer();
   }
+
+  /**
+   * 清空引用表和类定义表，之后写出的对象可以单独解码。
+   * 只有 {@link #reusable(OutputStream)} 得到的实例能清空类定义表，做不到时返回 false。
+   */
+  public boolean resetReferences() {
+    if (mH2o instanceof ReusableHessian2Output) {
+      return ((ReusableHessian2Output) mH2o).reset();
+    }
+    mH2o.resetReferences();
+    return false;
+  }
+
+  @Override
+  public void cleanup() {
+    if (mH2o instanceof ReusableHessian2Output) {
+      ((ReusableHessian2Output) mH2o).recycle();
+    }
+  }
 }
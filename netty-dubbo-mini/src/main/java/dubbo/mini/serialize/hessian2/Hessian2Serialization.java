@@ -24,7 +24,7 @@ public class Hessian2Serialization implements Serialization {
 
   @Override
   public ObjectOutput serialize(NetURL url, OutputStream output) throws IOException {
-    return new Hessian2ObjectOutput(output);
+    return Hessian2ObjectOutput.reusable(output);
   }
 
   @Override
@@ -0,0 +1,114 @@
+package dubbo.mini.serialize.hessian2;
+
+import com.alibaba.com.caucho.hessian.io.Hessian2Output;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 可以切换目标流的 Hessian2Output，每个线程缓存一个，省掉每条消息 4K 的内部 buffer 和引用表。
+ * <p>
+ * hessian-lite 3.2.6 没有 reset 方法，类定义表 _classRefs / _typeRefs 是私有字段，只能反射清空；
+ * 拿不到字段时不做复用，每次都新建。
+ */
+final class ReusableHessian2Output extends Hessian2Output {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReusableHessian2Output.class);
+
+  private static final Field CLASS_REFS;
+
+  private static final Field TYPE_REFS;
+
+  /**
+   * 每个线程缓存一个，借出时置空，嵌套使用时另外创建
+   */
+  private static final ThreadLocal<ReusableHessian2Output> CACHE = new ThreadLocal<>();
+
+  static {
+    Field classRefs = null;
+    Field typeRefs = null;
+    try {
+      classRefs = Hessian2Output.class.getDeclaredField("_classRefs");
+      classRefs.setAccessible(true);
+      typeRefs = Hessian2Output.class.getDeclaredField("_typeRefs");
+      typeRefs.setAccessible(true);
+    } catch (Exception e) {
+      logger.warn("Hessian2Output can not be reset, disable output reuse: " + e.getMessage());
+      classRefs = null;
+      typeRefs = null;
+    }
+    CLASS_REFS = classRefs;
+    TYPE_REFS = typeRefs;
+  }
+
+  private ReusableHessian2Output(OutputStream os) {
+    super(os);
+    setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
+  }
+
+  static boolean isReusable() {
+    return CLASS_REFS != null;
+  }
+
+  /**
+   * 取当前线程缓存的实例并绑定到 os，没有缓存（或正被外层使用）时新建一个。
+   */
+  static ReusableHessian2Output borrow(OutputStream os) {
+    ReusableHessian2Output output = CACHE.get();
+    if (output == null) {
+      return new ReusableHessian2Output(os);
+    }
+    CACHE.set(null);
+    output._os = os;
+    return output;
+  }
+
+  /**
+   * 清空引用表并解除目标流，放回当前线程。缓冲区里还有未写出的数据时直接丢弃这个实例。
+   */
+  void recycle() {
+    if (_os == null) {
+      // 已经归还过
+      return;
+    }
+    try {
+      // 正常流程已经 flushBuffer 过，这里是空操作
+      flushBuffer();
+      if (!reset()) {
+        return;
+      }
+    } catch (IOException e) {
+      return;
+    } finally {
+      _os = null;
+    }
+    CACHE.set(this);
+  }
+
+  /**
+   * 清空引用表和类定义表，之后写出的对象不再引用之前写过的类定义。清不掉类定义表时返回 false。
+   */
+  boolean reset() {
+    resetReferences();
+    if (!isReusable()) {
+      return false;
+    }
+    try {
+      clear(CLASS_REFS);
+      clear(TYPE_REFS);
+      return true;
+    } catch (IllegalAccessException e) {
+      return false;
+    }
+  }
+
+  private void clear(Field field) throws IllegalAccessException {
+    Map<?, ?> refs = (Map<?, ?>) field.get(this);
+    if (refs != null) {
+      refs.clear();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package dubbo.mini.serialize.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import dubbo.mini.serialize.AbstractKryoFactory;
+import dubbo.mini.serialize.Cleanable;
+import dubbo.mini.serialize.ObjectInput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Kryo 和 Input 在第一次读取时才借出，{@link #cleanup()} 时归还。
+ * <p>
+ * 解码时会先创建 ObjectInput 再决定是否使用（例如请求体交给 DecodeableRpcInvocation 解码），延迟借出避免未使用的实例离开池子。
+ */
+public class KryoObjectInput implements ObjectInput, Cleanable {
+
+  private final AbstractKryoFactory factory;
+
+  private InputStream inputStream;
+
+  private Input input;
+
+  private Kryo kryo;
+
+  public KryoObjectInput(AbstractKryoFactory factory, InputStream inputStream) {
+    this.factory = factory;
+    this.inputStream = inputStream;
+  }
+
+  private Input input() {
+    if (input == null) {
+      input = factory.getInput();
+      input.setInputStream(inputStream);
+      kryo = factory.getKryo();
+    }
+    return input;
+  }
+
+  @Override
+  public boolean readBool() throws IOException {
+    try {
+      return input().readBoolean();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    try {
+      return input().readByte();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    try {
+      return input().readShort();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    try {
+      return input().readInt();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    try {
+      return input().readLong();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    try {
+      return input().readFloat();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    try {
+      return input().readDouble();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public String readUTF() throws IOException {
+    try {
+      return input().readString();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public byte[] readBytes() throws IOException {
+    try {
+      Input in = input();
+      int len = in.readInt();
+      if (len < 0) {
+        return null;
+      } else if (len == 0) {
+        return new byte[]{};
+      } else {
+        return in.readBytes(len);
+      }
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public Object readObject() throws IOException, ClassNotFoundException {
+    try {
+      Input in = input();
+      return kryo.readClassAndObject(in);
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T readObject(Class<T> clazz) throws IOException, ClassNotFoundException {
+    return (T) readObject();
+  }
+
+  @Override
+  public <T> T readObject(Class<T> clazz, Type type) throws IOException, ClassNotFoundException {
+    return readObject(clazz);
+  }
+
+  @Override
+  public void cleanup() {
+    if (kryo != null) {
+      factory.returnKryo(kryo);
+      kryo = null;
+    }
+    if (input != null) {
+      factory.returnInput(input);
+      input = null;
+    }
+    inputStream = null;
+  }
+}
@@ -0,0 +1,115 @@
+package dubbo.mini.serialize.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Output;
+import dubbo.mini.serialize.AbstractKryoFactory;
+import dubbo.mini.serialize.Cleanable;
+import dubbo.mini.serialize.ObjectOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Kryo 和 Output 在构造时借出，{@link #cleanup()} 时归还
+ */
+public class KryoObjectOutput implements ObjectOutput, Cleanable {
+
+  private final AbstractKryoFactory factory;
+
+  private Output output;
+
+  private Kryo kryo;
+
+  public KryoObjectOutput(AbstractKryoFactory factory, OutputStream outputStream) {
+    this.factory = factory;
+    this.output = factory.getOutput();
+    this.output.setOutputStream(outputStream);
+    this.kryo = factory.getKryo();
+  }
+
+  @Override
+  public void writeBool(boolean v) throws IOException {
+    output.writeBoolean(v);
+  }
+
+  @Override
+  public void writeByte(byte v) throws IOException {
+    output.writeByte(v);
+  }
+
+  @Override
+  public void writeShort(short v) throws IOException {
+    output.writeShort(v);
+  }
+
+  @Override
+  public void writeInt(int v) throws IOException {
+    output.writeInt(v);
+  }
+
+  @Override
+  public void writeLong(long v) throws IOException {
+    output.writeLong(v);
+  }
+
+  @Override
+  public void writeFloat(float v) throws IOException {
+    output.writeFloat(v);
+  }
+
+  @Override
+  public void writeDouble(double v) throws IOException {
+    output.writeDouble(v);
+  }
+
+  @Override
+  public void writeBytes(byte[] v) throws IOException {
+    if (v == null) {
+      output.writeInt(-1);
+    } else {
+      writeBytes(v, 0, v.length);
+    }
+  }
+
+  @Override
+  public void writeBytes(byte[] v, int off, int len) throws IOException {
+    if (v == null) {
+      output.writeInt(-1);
+    } else {
+      output.writeInt(len);
+      output.write(v, off, len);
+    }
+  }
+
+  @Override
+  public void writeUTF(String v) throws IOException {
+    output.writeString(v);
+  }
+
+  @Override
+  public void writeObject(Object v) throws IOException {
+    // 写入类型信息，读取端不依赖声明类型
+    kryo.writeClassAndObject(output, v);
+  }
+
+  @Override
+  public void flushBuffer() throws IOException {
+    try {
+      output.flush();
+    } catch (KryoException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void cleanup() {
+    if (kryo != null) {
+      factory.returnKryo(kryo);
+      kryo = null;
+    }
+    if (output != null) {
+      factory.returnOutput(output);
+      output = null;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package dubbo.mini.serialize.kryo;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.serialize.ObjectInput;
+import dubbo.mini.serialize.ObjectOutput;
+import dubbo.mini.serialize.Serialization;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Kryo 序列化。
+ * <p>
+ * 通过 {@code kryo.factory} 选择 Kryo 实例的获取方式：threadlocal（默认）或 pooled。
+ * 需要跨版本稳定的类，使用 {@link dubbo.mini.serialize.SerializableClassRegistry#registerClass(Class, int,
+ * com.esotericsoftware.kryo.Serializer)} 指定注册 id。
+ */
+public class KryoSerialization implements Serialization {
+
+  public static final byte ID = 8;
+
+  @Override
+  public byte getContentTypeId() {
+    return ID;
+  }
+
+  @Override
+  public String getContentType() {
+    return "x-application/kryo";
+  }
+
+  @Override
+  public ObjectOutput serialize(NetURL url, OutputStream output) throws IOException {
+    return new KryoObjectOutput(KryoUtils.getFactory(url), output);
+  }
+
+  @Override
+  public ObjectInput deserialize(NetURL url, InputStream input) throws IOException {
+    return new KryoObjectInput(KryoUtils.getFactory(url), input);
+  }
+
+}
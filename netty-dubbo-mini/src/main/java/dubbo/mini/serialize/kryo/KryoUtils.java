@@ -0,0 +1,43 @@
+package dubbo.mini.serialize.kryo;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.serialize.AbstractKryoFactory;
+import dubbo.mini.serialize.PooledKryoFactory;
+import dubbo.mini.serialize.ThreadLocalKryoFactory;
+
+/**
+ * 全局的 Kryo 工厂，类的注册需要在第一次序列化之前完成
+ */
+public class KryoUtils {
+
+  public static final String THREAD_LOCAL = "threadlocal";
+
+  public static final String POOLED = "pooled";
+
+  private static final AbstractKryoFactory THREAD_LOCAL_FACTORY = new ThreadLocalKryoFactory();
+
+  private static final AbstractKryoFactory POOLED_FACTORY = new PooledKryoFactory();
+
+  private KryoUtils() {
+  }
+
+  public static AbstractKryoFactory getFactory(NetURL url) {
+    String name = url == null ? THREAD_LOCAL
+        : url.getParameter(Constants.KRYO_FACTORY_KEY, THREAD_LOCAL);
+    return POOLED.equals(name) ? POOLED_FACTORY : THREAD_LOCAL_FACTORY;
+  }
+
+  /**
+   * only supposed to be called at startup time
+   */
+  public static void register(Class<?> clazz) {
+    THREAD_LOCAL_FACTORY.registerClass(clazz);
+    POOLED_FACTORY.registerClass(clazz);
+  }
+
+  public static void setRegistrationRequired(boolean registrationRequired) {
+    THREAD_LOCAL_FACTORY.setRegistrationRequired(registrationRequired);
+    POOLED_FACTORY.setRegistrationRequired(registrationRequired);
+  }
+}
@@ -0,0 +1,149 @@
+package dubbo.mini.serialize.protobuf;
+
+import static dubbo.mini.serialize.protobuf.ProtobufUtils.TYPE_HESSIAN;
+import static dubbo.mini.serialize.protobuf.ProtobufUtils.TYPE_NULL;
+import static dubbo.mini.serialize.protobuf.ProtobufUtils.TYPE_PROTOBUF;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.Parser;
+import dubbo.mini.common.io.UnsafeByteArrayInputStream;
+import dubbo.mini.serialize.ObjectInput;
+import dubbo.mini.serialize.hessian2.Hessian2ObjectInput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+public class ProtobufObjectInput implements ObjectInput {
+
+  private static final int BUFFER_SIZE = 512;
+
+  private final CodedInputStream input;
+
+  private ChunkInputStream fallback;
+
+  private Hessian2ObjectInput fallbackInput;
+
+  public ProtobufObjectInput(InputStream is) {
+    this.input = CodedInputStream.newInstance(is, BUFFER_SIZE);
+    // 消息体大小由协议头限制
+    this.input.setSizeLimit(Integer.MAX_VALUE);
+  }
+
+  @Override
+  public boolean readBool() throws IOException {
+    return input.readBool();
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    return input.readRawByte();
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    return (short) input.readSInt32();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    return input.readSInt32();
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    return input.readSInt64();
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    return input.readFloat();
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    return input.readDouble();
+  }
+
+  @Override
+  public String readUTF() throws IOException {
+    return input.readBool() ? input.readStringRequireUtf8() : null;
+  }
+
+  @Override
+  public byte[] readBytes() throws IOException {
+    int len = input.readSInt32();
+    if (len < 0) {
+      return null;
+    }
+    return input.readRawBytes(len);
+  }
+
+  @Override
+  public Object readObject() throws IOException, ClassNotFoundException {
+    return readObject(null, null);
+  }
+
+  @Override
+  public <T> T readObject(Class<T> cls) throws IOException, ClassNotFoundException {
+    return readObject(cls, null);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T readObject(Class<T> cls, Type type) throws IOException, ClassNotFoundException {
+    byte tag = input.readRawByte();
+    switch (tag) {
+      case TYPE_NULL:
+        return null;
+      case TYPE_PROTOBUF:
+        Parser<?> parser = ProtobufUtils.getParser(input.readStringRequireUtf8());
+        int limit = input.pushLimit(input.readRawVarint32());
+        Object message = parser.parseFrom(input, ExtensionRegistryLite.getEmptyRegistry());
+        input.popLimit(limit);
+        return (T) message;
+      case TYPE_HESSIAN:
+        return readHessian(input.readRawBytes(input.readRawVarint32()), cls, type);
+      default:
+        throw new IOException("Unknown object type " + tag + " in protobuf stream");
+    }
+  }
+
+  /**
+   * 整个流共用一个 hessian2 输入，每段读之前清空引用表和类定义表，和写出端对应
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T readHessian(byte[] bytes, Class<T> cls, Type type)
+      throws IOException, ClassNotFoundException {
+    if (fallbackInput == null) {
+      fallback = new ChunkInputStream(bytes);
+      fallbackInput = new Hessian2ObjectInput(fallback);
+    } else {
+      fallback.bind(bytes);
+      fallbackInput.resetReferences();
+    }
+    try {
+      if (cls == null) {
+        return (T) fallbackInput.readObject();
+      }
+      return type == null ? fallbackInput.readObject(cls) : fallbackInput.readObject(cls, type);
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      // 读失败时内部缓冲里可能还留着这段的字节，丢弃不再复用
+      fallbackInput = null;
+      throw e;
+    }
+  }
+
+  private static final class ChunkInputStream extends UnsafeByteArrayInputStream {
+
+    ChunkInputStream(byte[] buf) {
+      super(buf);
+    }
+
+    void bind(byte[] buf) {
+      mData = buf;
+      mPosition = mMark = 0;
+      mLimit = buf.length;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package dubbo.mini.serialize.protobuf;
+
+import static dubbo.mini.serialize.protobuf.ProtobufUtils.TYPE_HESSIAN;
+import static dubbo.mini.serialize.protobuf.ProtobufUtils.TYPE_NULL;
+import static dubbo.mini.serialize.protobuf.ProtobufUtils.TYPE_PROTOBUF;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import dubbo.mini.common.io.UnsafeByteArrayOutputStream;
+import dubbo.mini.serialize.Cleanable;
+import dubbo.mini.serialize.ObjectOutput;
+import dubbo.mini.serialize.hessian2.Hessian2ObjectOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * protobuf 消息直接 writeTo 到输出流（编码时即为出站的 ChannelBuffer），不生成中间的 byte[]。
+ * <p>
+ * 非 protobuf 对象先用 hessian2 写入临时缓冲，再以 bytes 写出。整个流共用一个 hessian2 输出，
+ * 每个对象写完清空引用表和类定义表，使每段都能单独解码。
+ */
+public class ProtobufObjectOutput implements ObjectOutput, Cleanable {
+
+  private static final int BUFFER_SIZE = 512;
+
+  private final CodedOutputStream output;
+
+  private UnsafeByteArrayOutputStream fallback;
+
+  private Hessian2ObjectOutput fallbackOutput;
+
+  public ProtobufObjectOutput(OutputStream os) {
+    this.output = CodedOutputStream.newInstance(os, BUFFER_SIZE);
+  }
+
+  @Override
+  public void writeBool(boolean v) throws IOException {
+    output.writeBoolNoTag(v);
+  }
+
+  @Override
+  public void writeByte(byte v) throws IOException {
+    output.writeRawByte(v);
+  }
+
+  @Override
+  public void writeShort(short v) throws IOException {
+    output.writeSInt32NoTag(v);
+  }
+
+  @Override
+  public void writeInt(int v) throws IOException {
+    output.writeSInt32NoTag(v);
+  }
+
+  @Override
+  public void writeLong(long v) throws IOException {
+    output.writeSInt64NoTag(v);
+  }
+
+  @Override
+  public void writeFloat(float v) throws IOException {
+    output.writeFloatNoTag(v);
+  }
+
+  @Override
+  public void writeDouble(double v) throws IOException {
+    output.writeDoubleNoTag(v);
+  }
+
+  @Override
+  public void writeUTF(String v) throws IOException {
+    if (v == null) {
+      output.writeBoolNoTag(false);
+    } else {
+      output.writeBoolNoTag(true);
+      output.writeStringNoTag(v);
+    }
+  }
+
+  @Override
+  public void writeBytes(byte[] v) throws IOException {
+    if (v == null) {
+      output.writeSInt32NoTag(-1);
+    } else {
+      writeBytes(v, 0, v.length);
+    }
+  }
+
+  @Override
+  public void writeBytes(byte[] v, int off, int len) throws IOException {
+    if (v == null) {
+      output.writeSInt32NoTag(-1);
+    } else {
+      output.writeSInt32NoTag(len);
+      output.writeRawBytes(v, off, len);
+    }
+  }
+
+  @Override
+  public void writeObject(Object obj) throws IOException {
+    if (obj == null) {
+      output.writeRawByte(TYPE_NULL);
+    } else if (obj instanceof MessageLite) {
+      MessageLite message = (MessageLite) obj;
+      output.writeRawByte(TYPE_PROTOBUF);
+      output.writeStringNoTag(obj.getClass().getName());
+      output.writeUInt32NoTag(message.getSerializedSize());
+      message.writeTo(output);
+    } else {
+      writeHessian(obj);
+    }
+  }
+
+  private void writeHessian(Object obj) throws IOException {
+    if (fallback == null) {
+      fallback = new UnsafeByteArrayOutputStream(256);
+    } else {
+      fallback.reset();
+    }
+    if (fallbackOutput == null) {
+      fallbackOutput = Hessian2ObjectOutput.reusable(fallback);
+    }
+    try {
+      fallbackOutput.writeObject(obj);
+      fallbackOutput.flushBuffer();
+    } catch (IOException | RuntimeException e) {
+      // 内部状态不完整，丢弃不再复用
+      fallbackOutput = null;
+      throw e;
+    }
+    if (!fallbackOutput.resetReferences()) {
+      fallbackOutput.cleanup();
+      fallbackOutput = null;
+    }
+    output.writeRawByte(TYPE_HESSIAN);
+    ByteBuffer bytes = fallback.toByteBuffer();
+    output.writeUInt32NoTag(bytes.remaining());
+    // writeRawBytes(ByteBuffer) 会写出整个 capacity，这里按实际长度写
+    output.writeRawBytes(bytes.array(), bytes.position(), bytes.remaining());
+  }
+
+  @Override
+  public void flushBuffer() throws IOException {
+    output.flush();
+  }
+
+  @Override
+  public void cleanup() {
+    if (fallbackOutput != null) {
+      fallbackOutput.cleanup();
+      fallbackOutput = null;
+    }
+  }
+}
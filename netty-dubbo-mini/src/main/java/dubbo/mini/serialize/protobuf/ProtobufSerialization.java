@@ -0,0 +1,41 @@
+package dubbo.mini.serialize.protobuf;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.serialize.ObjectInput;
+import dubbo.mini.serialize.ObjectOutput;
+import dubbo.mini.serialize.Serialization;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * protobuf 序列化。
+ * <p>
+ * {@code MessageLite} 类型的对象用 {@code writeTo}/{@code parseFrom} 读写，其它对象退化为 hessian2，
+ * 基本类型用 protobuf 的 varint 编码。适合参数和返回值都是 protobuf 生成类的跨语言服务。
+ */
+public class ProtobufSerialization implements Serialization {
+
+  public static final byte ID = 22;
+
+  @Override
+  public byte getContentTypeId() {
+    return ID;
+  }
+
+  @Override
+  public String getContentType() {
+    return "x-application/protobuf";
+  }
+
+  @Override
+  public ObjectOutput serialize(NetURL url, OutputStream output) throws IOException {
+    return new ProtobufObjectOutput(output);
+  }
+
+  @Override
+  public ObjectInput deserialize(NetURL url, InputStream input) throws IOException {
+    return new ProtobufObjectInput(input);
+  }
+
+}
@@ -0,0 +1,60 @@
+package dubbo.mini.serialize.protobuf;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import dubbo.mini.common.utils.ClassHelper;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * protobuf 消息类型的 Parser 缓存，按类名查找，只在第一次使用时反射
+ */
+final class ProtobufUtils {
+
+  /**
+   * writeObject 写入的类型标记
+   */
+  static final byte TYPE_NULL = 0;
+
+  static final byte TYPE_PROTOBUF = 1;
+
+  static final byte TYPE_HESSIAN = 2;
+
+  private static final ConcurrentMap<String, Parser<?>> PARSERS = new ConcurrentHashMap<>();
+
+  private ProtobufUtils() {
+  }
+
+  static Parser<?> getParser(String className) throws ClassNotFoundException {
+    Parser<?> parser = PARSERS.get(className);
+    if (parser == null) {
+      // 类名来自网络，校验通过前不初始化，避免执行任意类的静态代码块
+      Class<?> clazz = Class.forName(className, false, ClassHelper.getClassLoader());
+      if (!MessageLite.class.isAssignableFrom(clazz)) {
+        throw new ClassNotFoundException(className + " is not a protobuf message");
+      }
+      parser = getParser(clazz);
+      Parser<?> old = PARSERS.putIfAbsent(className, parser);
+      if (old != null) {
+        parser = old;
+      }
+    }
+    return parser;
+  }
+
+  private static Parser<?> getParser(Class<?> clazz) throws ClassNotFoundException {
+    try {
+      // 生成的消息类（包括 lite）都有静态的 parser() 方法
+      Method method = clazz.getMethod("parser");
+      return (Parser<?>) method.invoke(null);
+    } catch (Exception e) {
+      try {
+        Method method = clazz.getMethod("getDefaultInstance");
+        return ((MessageLite) method.invoke(null)).getParserForType();
+      } catch (Exception ex) {
+        throw new ClassNotFoundException("Failed to get parser of " + clazz.getName(), ex);
+      }
+    }
+  }
+}
@@ -1,22 +1,25 @@
 package dubbo.mini.support;
 
 import dubbo.mini.common.Constants;
+import dubbo.mini.common.timer.CachedClock;
 import dubbo.mini.common.timer.HashedWheelTimer;
 import dubbo.mini.common.timer.Timeout;
 import dubbo.mini.common.timer.Timer;
 import dubbo.mini.common.timer.TimerTask;
+import dubbo.mini.common.utils.ConfigUtils;
 import dubbo.mini.exchange.Request;
 import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.NetChannel;
 import dubbo.mini.remote.RemotingException;
+import dubbo.mini.remote.OverloadException;
+import dubbo.mini.remote.TimeoutException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,29 +27,42 @@ public class DefaultFuture implements ResponseFuture {
 
   private static final Logger logger = LoggerFactory.getLogger(DefaultFuture.class);
 
-  private static final Map<Long, DefaultFuture> FUTURES = new ConcurrentHashMap<>();
-  private static final Map<Long, NetChannel> CHANNELS = new ConcurrentHashMap<>();
+  /**
+   * 在途请求表挂在连接的 attribute 上，每个连接一份
+   */
+  private static final ChannelAttributeKey<InFlightTable> INFLIGHT_TABLE_KEY = ChannelAttributeKey
+      .valueOf("dubbo.inflight.table");
 
   private final long id;
   private final NetChannel channel;
+  private final InFlightTable table;
 
-  private final Lock lock = new ReentrantLock();
+  /**
+   * 响应到达、超时或连接断开时由 IO 线程 / 定时器完成，调用方可以直接组合而无需阻塞线程
+   */
+  private final CompletableFuture<Object> future = new CompletableFuture<>();
 
-  private final Condition done = lock.newCondition();
-
-  private final long start = System.currentTimeMillis();
+  private final long start = CachedClock.currentTimeMillis();
   private final int timeout;
 
   private volatile long sent;
 
+  /**
+   * 超时检查任务，完成时取消，不让已完成的请求留在时间轮里直到超时
+   */
+  private volatile Timeout timeoutCheck;
+
   private Request request;
-  private Object response;
 
 
-  public static final Timer TIME_OUT_TIMER = new HashedWheelTimer(
-      new NamedThreadFactory("dubbo-future-timeout", true),
-      30,
-      TimeUnit.MILLISECONDS);
+  /**
+   * 超时检查的时间轮，按连接分片，每片一个 worker 线程，分片数见
+   * {@link Constants#TIMEOUT_TIMER_SHARDS_KEY}。同一连接的请求总在同一个分片上。
+   */
+  private static final Timer[] TIME_OUT_TIMERS = newTimeoutTimers(parseTimerShards(
+      ConfigUtils.getProperty(Constants.TIMEOUT_TIMER_SHARDS_KEY)));
+
+  public static final Timer TIME_OUT_TIMER = TIME_OUT_TIMERS[0];
 
 
   private DefaultFuture(NetChannel channel, Request request, int timeout) {
@@ -55,9 +71,9 @@ public class DefaultFuture implements ResponseFuture {
     this.id = request.getId();
     this.timeout = timeout > 0 ? timeout
         : channel.getUrl().getPositiveParameter(Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
-    // put into waiting map.
-    FUTURES.put(id, this);
-    CHANNELS.put(id, channel);
+    // put into waiting table.
+    this.table = inFlightTable(channel, true);
+    table.put(this);
   }
 
   public static DefaultFuture newFuture(NetChannel channel, Request request, int timeout) {
@@ -69,28 +85,101 @@ public class DefaultFuture implements ResponseFuture {
 
   private static void timeoutCheck(DefaultFuture future) {
     TimeoutCheckTask task = new TimeoutCheckTask(future);
-    TIME_OUT_TIMER.newTimeout(task, future.getTimeout(), TimeUnit.MILLISECONDS);
+    Timer timer = TIME_OUT_TIMERS.length == 1 ? TIME_OUT_TIMER : TIME_OUT_TIMERS[
+        (System.identityHashCode(future.channel) & Integer.MAX_VALUE) % TIME_OUT_TIMERS.length];
+    future.timeoutCheck = timer.newTimeout(task, future.getTimeout(), TimeUnit.MILLISECONDS);
+    // 响应可能在登记前就到了
+    if (future.isDone()) {
+      future.cancelTimeoutCheck();
+    }
+  }
+
+  /**
+   * 配置的分片数无法解析时用默认值，小于 1 时按 1 处理，都记一条警告，不让类初始化失败
+   */
+  static int parseTimerShards(String value) {
+    if (value == null || value.trim().length() == 0) {
+      return Constants.DEFAULT_TIMEOUT_TIMER_SHARDS;
+    }
+    int shards;
+    try {
+      shards = Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      logger.warn("Invalid " + Constants.TIMEOUT_TIMER_SHARDS_KEY + " \"" + value
+          + "\", use default " + Constants.DEFAULT_TIMEOUT_TIMER_SHARDS);
+      return Constants.DEFAULT_TIMEOUT_TIMER_SHARDS;
+    }
+    if (shards < 1) {
+      logger.warn(Constants.TIMEOUT_TIMER_SHARDS_KEY + " " + shards + " is less than 1, use 1");
+      return 1;
+    }
+    return shards;
+  }
+
+  private static Timer[] newTimeoutTimers(int shards) {
+    Timer[] timers = new Timer[shards];
+    for (int i = 0; i < timers.length; i++) {
+      timers[i] = new HashedWheelTimer(
+          new NamedThreadFactory(timers.length == 1 ? "dubbo-future-timeout"
+              : "dubbo-future-timeout-" + i, true),
+          30,
+          TimeUnit.MILLISECONDS);
+    }
+    return timers;
+  }
+
+  private void cancelTimeoutCheck() {
+    Timeout t = timeoutCheck;
+    if (t != null) {
+      t.cancel();
+    }
+  }
+
+  /**
+   * 获得连接上的在途请求表，不存在时按需创建。
+   * <p>
+   * 若连接不保存 attribute（例如客户端尚未连上），返回一个独立的表，此时请求只能等待超时。
+   */
+  private static InFlightTable inFlightTable(NetChannel channel, boolean create) {
+    InFlightTable table = channel.getAttribute(INFLIGHT_TABLE_KEY);
+    if (table != null || !create) {
+      return table;
+    }
+    synchronized (DefaultFuture.class) {
+      table = channel.getAttribute(INFLIGHT_TABLE_KEY);
+      if (table == null) {
+        table = new InFlightTable(channel.getUrl().getPositiveParameter(
+            Constants.INFLIGHT_CAPACITY_KEY, Constants.DEFAULT_INFLIGHT_CAPACITY));
+        channel.setAttribute(INFLIGHT_TABLE_KEY, table);
+      }
+    }
+    return table;
   }
 
+  /**
+   * 连接断开时，只处理该连接上的在途请求。
+   */
   public static void closeChannel(NetChannel channel) {
-    for (Map.Entry<Long, NetChannel> entry : CHANNELS.entrySet()) {
-      if (channel.equals(entry.getValue())) {
-        DefaultFuture future = getFuture(entry.getKey());
-        if (future != null && !future.isDone()) {
-          Response disconnectResponse = new Response(future.getId());
-          disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
-          disconnectResponse.setErrorMessage("Channel " +
-              channel +
-              " is inactive. Directly return the unFinished request : " +
-              future.getRequest());
-          DefaultFuture.received(channel, disconnectResponse);
-        }
+    InFlightTable table = inFlightTable(channel, false);
+    if (table == null) {
+      return;
+    }
+    for (DefaultFuture future : table.drain()) {
+      if (!future.isDone()) {
+        Response disconnectResponse = new Response(future.getId());
+        disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
+        disconnectResponse.setErrorMessage("Channel " +
+            channel +
+            " is inactive. Directly return the unFinished request : " +
+            future.getRequest());
+        future.doReceived(disconnectResponse);
       }
     }
   }
 
   public static boolean hasFuture(NetChannel channel) {
-    return CHANNELS.containsValue(channel);
+    InFlightTable table = inFlightTable(channel, false);
+    return table != null && !table.isEmpty();
   }
 
   public Request getRequest() {
@@ -101,37 +190,39 @@ public class DefaultFuture implements ResponseFuture {
     return timeout;
   }
 
-  public static DefaultFuture getFuture(long id) {
-    return FUTURES.get(id);
+  public static DefaultFuture getFuture(NetChannel channel, long id) {
+    InFlightTable table = inFlightTable(channel, false);
+    return table == null ? null : table.get(id);
   }
 
   public static void sent(NetChannel channel, Request request) {
-    DefaultFuture future = FUTURES.get(request.getId());
+    DefaultFuture future = getFuture(channel, request.getId());
     if (future != null) {
       future.doSent();
     }
   }
 
 
+  private static DefaultFuture removeFuture(NetChannel channel, long id) {
+    InFlightTable table = channel == null ? null : inFlightTable(channel, false);
+    return table == null ? null : table.remove(id);
+  }
+
   public static void received(NetChannel channel, Response response) {
-    try {
-      DefaultFuture future = FUTURES.remove(response.getId());
-      if (future != null) {
-        future.doReceived(response);
-      } else {
-        logger.warn("The timeout response finally returned at "
-            + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
-            + ", response " + response
-            + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
-            + " -> " + channel.getRemoteAddress()));
-      }
-    } finally {
-      CHANNELS.remove(response.getId());
+    DefaultFuture future = removeFuture(channel, response.getId());
+    if (future != null) {
+      future.doReceived(response);
+    } else {
+      logger.warn("The timeout response finally returned at "
+          + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
+          + ", response " + response
+          + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
+          + " -> " + channel.getRemoteAddress()));
     }
   }
 
   public static void received(NetChannel channel, long id, Object response) {
-    DefaultFuture future = FUTURES.remove(id);
+    DefaultFuture future = removeFuture(channel, id);
     if (future != null) {
       future.doReceived(response);
     } else {
@@ -152,42 +243,46 @@ public class DefaultFuture implements ResponseFuture {
     if (timeout <= 0) {
       timeout = Constants.DEFAULT_TIMEOUT;
     }
-    // 若未完成，等待
-    // 判断是否完成。若未完成，基于 Lock + Condition 的方式，实现等待。
-    // 而等待的唤醒，通过 ChannelHandler#received(channel, message) 方法，
-    // 接收到请求时执行 DefaultFuture#received(channel, response) 方法。
-    if (!isDone()) {
-      // 注意，此处使用的不是 start 属性
-      long start = System.currentTimeMillis();
-      lock.lock();
-      try {
-        // 等待完成或超时
-        while (!isDone()) {
-          done.await(timeout, TimeUnit.MILLISECONDS);
-          if (isDone() || System.currentTimeMillis() - start > timeout) {
-            break;
-          }
-        }
-      } catch (InterruptedException e) {
-        throw new RuntimeException(e);
-      } finally {
-        lock.unlock();
+    // 等待的唤醒，通过 ChannelHandler#received(channel, message) 方法，
+    // 接收到响应时执行 DefaultFuture#received(channel, response) 方法完成 future。
+    try {
+      @SuppressWarnings("unchecked")
+      T value = (T) future.get(timeout, TimeUnit.MILLISECONDS);
+      return value;
+    } catch (java.util.concurrent.TimeoutException e) {
+      throw new TimeoutException(isSent(), channel, getTimeoutMessage(false));
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RemotingException) {
+        throw (RemotingException) cause;
       }
+      throw new RemotingException(channel, cause);
+    } catch (CancellationException e) {
+      throw new RemotingException(channel, "Request " + id + " is cancelled", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RemotingException(channel, e);
     }
-    return (T) response;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> getCompletableFuture() {
+    return (CompletableFuture<T>) future;
   }
 
   public void cancel() {
-    this.response = null;
-    FUTURES.remove(id);
+    table.remove(id);
+    future.cancel(false);
+    cancelTimeoutCheck();
   }
 
   @Override
   public boolean isDone() {
-    return this.response != null;
+    return future.isDone();
   }
 
-  private long getId() {
+  long getId() {
     return id;
   }
 
@@ -205,20 +300,30 @@ public class DefaultFuture implements ResponseFuture {
   }
 
   private void doSent() {
-    sent = System.currentTimeMillis();
+    sent = CachedClock.currentTimeMillis();
   }
 
+  /**
+   * 完成 future，正常响应取其结果，超时和其它错误状态转换为对应的异常。
+   */
   private void doReceived(Object res) {
-    // 获得锁
-    lock.lock();
-    try {
-      // 设置响应
-      this.response = res;
-      // 调用 Condition#signal() 方法，通知，唤醒 DefaultFuture#get(..) 方法的等待。
-      done.signalAll();
-    } finally {
-      // 释放锁。
-      lock.unlock();
+    cancelTimeoutCheck();
+    if (!(res instanceof Response)) {
+      future.complete(res);
+      return;
+    }
+    Response response = (Response) res;
+    byte status = response.getStatus();
+    if (status == Response.OK) {
+      future.complete(response.getResult());
+    } else if (status == Response.CLIENT_TIMEOUT || status == Response.SERVER_TIMEOUT) {
+      future.completeExceptionally(new TimeoutException(status == Response.SERVER_TIMEOUT,
+          channel, response.getErrorMessage()));
+    } else if (status == Response.SERVER_OVERLOADED
+        || status == Response.SERVER_THREADPOOL_EXHAUSTED_ERROR) {
+      future.completeExceptionally(new OverloadException(channel, response.getErrorMessage()));
+    } else {
+      future.completeExceptionally(new RemotingException(channel, response.getErrorMessage()));
     }
   }
 
@@ -242,8 +347,10 @@ public class DefaultFuture implements ResponseFuture {
       timeoutResponse
           .setStatus(future.isSent() ? Response.SERVER_TIMEOUT : Response.CLIENT_TIMEOUT);
       timeoutResponse.setErrorMessage(future.getTimeoutMessage(true));
-      // handle response.
-      DefaultFuture.received(future.getChannel(), timeoutResponse);
+      // handle response. 直接从 future 所属的表中移除，不依赖连接当前的 attribute
+      if (future.table.remove(future.getId()) != null) {
+        future.doReceived(timeoutResponse);
+      }
 
     }
   }
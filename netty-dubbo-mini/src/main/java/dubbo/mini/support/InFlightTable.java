@@ -0,0 +1,120 @@
+package dubbo.mini.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 单个连接上的在途请求表，以 request id（long）为 key。
+ * <p>
+ * 请求 id 全局递增，同一连接上的在途请求落在 {@code id & mask} 附近的槽位，写入和删除都是 CAS，
+ * 不需要装箱 Long。探测窗口内没有空位时才退化到 overflow map。
+ */
+final class InFlightTable {
+
+  /**
+   * 线性探测的最大距离
+   */
+  private static final int PROBE_WINDOW = 16;
+
+  private final AtomicReferenceArray<DefaultFuture> slots;
+
+  private final int mask;
+
+  /**
+   * 探测窗口已满时的兜底存储，正常情况下为空
+   */
+  private final Map<Long, DefaultFuture> overflow = new ConcurrentHashMap<>();
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  InFlightTable(int capacity) {
+    int n = Integer.highestOneBit(Math.max(capacity, PROBE_WINDOW) - 1) << 1;
+    this.slots = new AtomicReferenceArray<>(n);
+    this.mask = n - 1;
+  }
+
+  void put(DefaultFuture future) {
+    long id = future.getId();
+    int base = (int) id;
+    for (int i = 0; i < PROBE_WINDOW; i++) {
+      if (slots.compareAndSet((base + i) & mask, null, future)) {
+        size.incrementAndGet();
+        return;
+      }
+    }
+    overflow.put(id, future);
+    size.incrementAndGet();
+  }
+
+  DefaultFuture get(long id) {
+    int base = (int) id;
+    for (int i = 0; i < PROBE_WINDOW; i++) {
+      DefaultFuture future = slots.get((base + i) & mask);
+      if (future != null && future.getId() == id) {
+        return future;
+      }
+    }
+    return overflow.isEmpty() ? null : overflow.get(id);
+  }
+
+  DefaultFuture remove(long id) {
+    int base = (int) id;
+    for (int i = 0; i < PROBE_WINDOW; i++) {
+      int index = (base + i) & mask;
+      DefaultFuture future = slots.get(index);
+      if (future != null && future.getId() == id) {
+        if (slots.compareAndSet(index, future, null)) {
+          size.decrementAndGet();
+          return future;
+        }
+        // 被并发删除了
+        return null;
+      }
+    }
+    if (overflow.isEmpty()) {
+      return null;
+    }
+    DefaultFuture future = overflow.remove(id);
+    if (future != null) {
+      size.decrementAndGet();
+    }
+    return future;
+  }
+
+  boolean isEmpty() {
+    return size.get() == 0;
+  }
+
+  int size() {
+    return size.get();
+  }
+
+  /**
+   * 取出并移除所有在途请求，连接断开时使用。
+   */
+  List<DefaultFuture> drain() {
+    List<DefaultFuture> futures = new ArrayList<>(Math.max(size.get(), 0));
+    for (int i = 0, n = slots.length(); i < n && size.get() > 0; i++) {
+      if (slots.get(i) == null) {
+        continue;
+      }
+      DefaultFuture future = slots.getAndSet(i, null);
+      if (future != null) {
+        size.decrementAndGet();
+        futures.add(future);
+      }
+    }
+    for (Long id : overflow.keySet()) {
+      DefaultFuture future = overflow.remove(id);
+      if (future != null) {
+        size.decrementAndGet();
+        futures.add(future);
+      }
+    }
+    return futures;
+  }
+}
@@ -1,6 +1,7 @@
 package dubbo.mini.support;
 
 import dubbo.mini.remote.RemotingException;
+import java.util.concurrent.CompletableFuture;
 
 public interface ResponseFuture {
 
@@ -11,4 +12,9 @@ public interface ResponseFuture {
 
   boolean isDone();
 
+  /**
+   * 非阻塞方式获取结果：正常完成时为 Response 的结果，失败时以 {@link RemotingException} 异常完成。
+   */
+  <T> CompletableFuture<T> getCompletableFuture();
+
 }
\ No newline at end of file
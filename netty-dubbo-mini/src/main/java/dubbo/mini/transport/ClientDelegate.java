@@ -1,6 +1,7 @@
 package dubbo.mini.transport;
 
 import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelAttributeKey;
 import dubbo.mini.remote.ChannelEventHandler;
 import dubbo.mini.remote.Client;
 import dubbo.mini.remote.RemotingException;
@@ -59,6 +60,31 @@ public class ClientDelegate implements Client {
     return client.isConnected();
   }
 
+  @Override
+  public boolean isWritable() {
+    return client.isWritable();
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return client.getReadTimestamp();
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    client.setReadTimestamp(timestamp);
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return client.getWriteTimestamp();
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    client.setWriteTimestamp(timestamp);
+  }
+
   @Override
   public InetSocketAddress getLocalAddress() {
     return client.getLocalAddress();
@@ -94,6 +120,21 @@ public class ClientDelegate implements Client {
     client.removeAttribute(key);
   }
 
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return client.getAttribute(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    client.setAttribute(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    client.removeAttribute(key);
+  }
+
   @Override
   public void close() {
     client.close();
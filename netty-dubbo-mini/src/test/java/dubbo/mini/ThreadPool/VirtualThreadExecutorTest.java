@@ -0,0 +1,127 @@
+package dubbo.mini.ThreadPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.utils.NetUtils;
+import dubbo.mini.protocol.Exporter;
+import dubbo.mini.protocol.Protocol;
+import dubbo.mini.remote.ChannelHandlerAdapter;
+import dubbo.mini.remote.OverloadException;
+import dubbo.mini.remote.WrappedChannelHandler;
+import dubbo.mini.rpc.Invoker;
+import dubbo.mini.rpc.ProxyFactory;
+import dubbo.mini.rpc.RpcContext;
+import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.support.DemoService;
+import dubbo.mini.support.ExtensionLoader;
+import dubbo.mini.support.ServDemoServiceImpl;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadExecutorTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+      .addParameter(Constants.THREADPOOL_KEY, VirtualThreadExecutor.NAME)
+      .addParameter(Constants.VIRTUAL_CONCURRENCY_KEY, 2);
+
+  @Test
+  void selectedByThreadpoolKey() {
+    WrappedChannelHandler handler = new WrappedChannelHandler(new ChannelHandlerAdapter(), URL);
+    assertTrue(handler.getExecutor() instanceof VirtualThreadExecutor);
+    handler.close();
+  }
+
+  @Test
+  void rejectWhenConcurrencyExceeded() throws Exception {
+    VirtualThreadExecutor executor = new VirtualThreadExecutor("test", URL);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blocking = () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ignored) {
+      }
+    };
+    executor.execute(blocking);
+    executor.execute(blocking);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertEquals(2, executor.getActiveCount());
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(blocking));
+
+    release.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    assertTrue(executor.isTerminated());
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+    }));
+  }
+
+  @Test
+  void providerRejectsBeyondConcurrency() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class)
+        .getDefaultExtension();
+    Protocol protocol = ExtensionLoader.getExtensionLoader(Protocol.class).getDefaultExtension();
+    NetURL url = new NetURL("dubbo", "127.0.0.1", NetUtils.getAvailablePort(),
+        DemoService.class.getName(), null)
+        .addParameter(Constants.INTERFACES, DemoService.class.getName())
+        .addParameter(Constants.THREADPOOL_KEY, VirtualThreadExecutor.NAME)
+        .addParameter(Constants.VIRTUAL_CONCURRENCY_KEY, 1)
+        // 连接事件不进线程池，唯一的并发只给请求用
+        .addParameter(Constants.DISPATCHER_KEY, "message");
+    DemoService service = new ServDemoServiceImpl() {
+      @Override
+      public String sayHello(String name) {
+        started.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.sayHello(name);
+      }
+    };
+    Exporter<DemoService> exporter = protocol
+        .export(proxyFactory.getInvoker(service, DemoService.class, url));
+    Invoker<DemoService> invoker = protocol.refer(DemoService.class, url);
+    try {
+      invoker.invoke(asyncSayHello("first"));
+      CompletableFuture<Object> first = RpcContext.getContext().getCompletableFuture();
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      // 服务端虚拟线程池只允许一个并发，第二个请求直接被拒绝
+      invoker.invoke(asyncSayHello("second"));
+      CompletableFuture<Object> second = RpcContext.getContext().getCompletableFuture();
+      ExecutionException e = assertThrows(ExecutionException.class,
+          () -> second.get(5, TimeUnit.SECONDS));
+      assertSame(OverloadException.class, e.getCause().getClass());
+
+      release.countDown();
+      assertEquals("server,first", first.get(5, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      invoker.destroy();
+      exporter.unexport();
+    }
+  }
+
+  private static RpcInvocation asyncSayHello(String name) {
+    RpcInvocation inv = new RpcInvocation();
+    inv.setMethodName("sayHello");
+    inv.setParameterTypes(new Class<?>[]{String.class});
+    inv.setArguments(new Object[]{name});
+    inv.setAttachment(Constants.ASYNC_KEY, "true");
+    return inv;
+  }
+}
@@ -0,0 +1,94 @@
+package dubbo.mini.codec;
+
+import dubbo.mini.buffer.NettyBackedChannelBuffer;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.Response;
+import dubbo.mini.protocol.dubbo.DubboCodec;
+import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.rpc.RpcResult;
+import dubbo.mini.support.MockChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 小请求 / 小响应编码的分配速率，关注 gc.alloc.rate.norm（每次调用分配的字节数）。
+ * <p>
+ * main 方法已加上 GC profiler，命令行运行时等价于 {@code -prof gc}。不参与单元测试。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeCodecAllocationBenchmark {
+
+  private DubboCodec codec;
+  private MockChannel channel;
+  private Request request;
+  private Response response;
+
+  @Setup
+  public void setup() {
+    codec = new DubboCodec();
+    channel = new MockChannel(new NetURL("dubbo", "127.0.0.1", 20880, "", null));
+
+    RpcInvocation inv = new RpcInvocation("sayHello", new Class<?>[]{String.class},
+        new Object[]{"world"});
+    inv.setAttachment(Constants.PATH_KEY, "demo");
+    inv.setAttachment(Constants.VERSION_KEY, "1.0.0");
+    request = new Request(1L);
+    request.setTwoWay(true);
+    request.setData(inv);
+
+    response = new Response(1L);
+    response.setResult(new RpcResult("hello world"));
+  }
+
+  @Benchmark
+  public int encodeRequest() throws IOException {
+    return encode(request);
+  }
+
+  @Benchmark
+  public int encodeResponse() throws IOException {
+    return encode(response);
+  }
+
+  private int encode(Object message) throws IOException {
+    ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+    try {
+      codec.encode(channel, new NettyBackedChannelBuffer(out), message);
+      return out.readableBytes();
+    } finally {
+      out.release();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(ExchangeCodecAllocationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,137 @@
+package dubbo.mini.codec;
+
+import dubbo.mini.buffer.ChannelBuffer;
+import dubbo.mini.buffer.ChannelBufferOutputStream;
+import dubbo.mini.buffer.NettyBackedChannelBuffer;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.io.Bytes;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.serialize.ObjectOutput;
+import dubbo.mini.serialize.Serialization;
+import dubbo.mini.support.MockChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 对比两种 Request 编码方式：
+ * <ul>
+ * <li>stream：旧实现，先拼 byte[] header，写入堆内 Buffer，再由 Netty 拷贝到 direct Buffer 发送</li>
+ * <li>direct：{@link ExchangeCodec} 直接把 Header 和 Body 写入池化的 direct ByteBuf</li>
+ * </ul>
+ * 运行 main 方法即可，不参与单元测试。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeCodecEncodeBenchmark {
+
+  private static final int HEADER_LENGTH = 16;
+
+  @Param({"64", "1024", "16384"})
+  private int payloadSize;
+
+  private ExchangeCodec codec;
+  private MockChannel channel;
+  private Serialization serialization;
+  private Request request;
+
+  @Setup
+  public void setup() {
+    codec = new ExchangeCodec();
+    channel = new MockChannel(new NetURL("dubbo", "127.0.0.1", 20880, "", null));
+    serialization = CodecSupport.getSerialization(channel.getUrl());
+    StringBuilder sb = new StringBuilder(payloadSize);
+    for (int i = 0; i < payloadSize; i++) {
+      sb.append((char) ('a' + i % 26));
+    }
+    request = new Request(1L);
+    request.setTwoWay(true);
+    request.setData(sb.toString());
+  }
+
+  @Benchmark
+  public int stream() throws IOException {
+    ByteBuf heap = Unpooled.buffer(256);
+    ByteBuf direct = null;
+    try {
+      ChannelBuffer buffer = new NettyBackedChannelBuffer(heap);
+      legacyEncodeRequest(buffer, request);
+      // 堆内 Buffer 写出 socket 前，Netty 会拷贝一份到 direct Buffer
+      direct = PooledByteBufAllocator.DEFAULT.directBuffer(heap.readableBytes());
+      direct.writeBytes(heap);
+      return direct.readableBytes();
+    } finally {
+      heap.release();
+      if (direct != null) {
+        direct.release();
+      }
+    }
+  }
+
+  @Benchmark
+  public int direct() throws IOException {
+    ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+    try {
+      codec.encode(channel, new NettyBackedChannelBuffer(out), request);
+      return out.readableBytes();
+    } finally {
+      out.release();
+    }
+  }
+
+  /**
+   * 旧版 ExchangeCodec#encodeRequest 的实现。
+   */
+  private void legacyEncodeRequest(ChannelBuffer buffer, Request req) throws IOException {
+    byte[] header = new byte[HEADER_LENGTH];
+    Bytes.short2bytes(ExchangeCodec.MAGIC, header);
+    header[2] = (byte) (ExchangeCodec.FLAG_REQUEST | serialization.getContentTypeId());
+    if (req.isTwoWay()) {
+      header[2] |= ExchangeCodec.FLAG_TWOWAY;
+    }
+    Bytes.long2bytes(req.getId(), header, 4);
+
+    int savedWriteIndex = buffer.writerIndex();
+    buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
+    ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
+    ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
+    out.writeObject(req.getData());
+    out.flushBuffer();
+    bos.flush();
+    bos.close();
+    int len = bos.writtenBytes();
+    Bytes.int2bytes(len, header, 12);
+
+    buffer.writerIndex(savedWriteIndex);
+    buffer.writeBytes(header);
+    buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(ExchangeCodecEncodeBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,128 @@
+package dubbo.mini.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.buffer.ChannelBuffer;
+import dubbo.mini.buffer.NettyBackedChannelBuffer;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.EventFrame;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.Response;
+import dubbo.mini.support.MockChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+class ExchangeCodecTest {
+
+  @Test
+  void encodeRequestIntoPooledDirectBuffer() throws Exception {
+    ExchangeCodec codec = new ExchangeCodec();
+    MockChannel channel = new MockChannel(new NetURL("dubbo", "127.0.0.1", 20880, "", null));
+
+    Request request = new Request(42L);
+    request.setTwoWay(true);
+    request.setData("hello");
+
+    ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+    try {
+      // 写入前留一段已有数据，确认 Header 回填到正确的位置
+      out.writeInt(7);
+      ChannelBuffer buffer = new NettyBackedChannelBuffer(out);
+      codec.encode(channel, buffer, request);
+
+      assertTrue(out.isDirect());
+      assertEquals(7, out.readInt());
+      assertEquals(ExchangeCodec.MAGIC, out.readShort());
+      byte flag = out.readByte();
+      assertEquals(ExchangeCodec.FLAG_REQUEST | ExchangeCodec.FLAG_TWOWAY,
+          flag & ~ExchangeCodec.SERIALIZATION_MASK);
+      assertEquals(0, out.readByte());
+      assertEquals(42L, out.readLong());
+      int len = out.readInt();
+      assertTrue(len > 0);
+      assertEquals(len, out.readableBytes());
+    } finally {
+      out.release();
+    }
+  }
+
+  @Test
+  void compressLargeBodyAndDecodeWithoutConfiguration() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < 16 * 1024) {
+      sb.append("{\"name\":\"dubbo\",\"id\":").append(sb.length() % 97).append("},");
+    }
+    String payload = sb.toString();
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null);
+    for (String compressor : new String[]{"snappy", "deflate"}) {
+      ExchangeCodec codec = new ExchangeCodec();
+      Response response = new Response(7L);
+      response.setResult(payload);
+
+      ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+      try {
+        codec.encode(new MockChannel(url.addParameter(Constants.COMPRESSOR_KEY, compressor)),
+            new NettyBackedChannelBuffer(out), response);
+        byte status = out.getByte(out.readerIndex() + 3);
+        assertEquals((byte) (ExchangeCodec.FLAG_COMPRESSED | Response.OK), status, compressor);
+        assertTrue(out.readableBytes() < payload.length() / 2, compressor);
+
+        // 解码端不配置 compressor
+        Response decoded = (Response) codec
+            .decode(new MockChannel(url), new NettyBackedChannelBuffer(out));
+        assertEquals(Response.OK, decoded.getStatus());
+        assertEquals(payload, decoded.getResult());
+        assertEquals(0, out.readableBytes());
+      } finally {
+        out.release();
+      }
+    }
+  }
+
+  @Test
+  void smallBodyIsNotCompressed() throws Exception {
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.COMPRESSOR_KEY, "snappy");
+    Request request = new Request(1L);
+    request.setData("hello");
+    ByteBuf out = PooledByteBufAllocator.DEFAULT.heapBuffer();
+    try {
+      new ExchangeCodec().encode(new MockChannel(url), new NettyBackedChannelBuffer(out), request);
+      assertEquals(0, out.getByte(3));
+    } finally {
+      out.release();
+    }
+  }
+
+  @Test
+  void eventFramesAreHeaderOnly() throws Exception {
+    ExchangeCodec codec = new ExchangeCodec();
+    MockChannel channel = new MockChannel(new NetURL("dubbo", "127.0.0.1", 20880, "", null));
+    Response heartbeat = new Response(9L);
+    heartbeat.setEvent(Response.HEARTBEAT_EVENT);
+    Request readonly = new Request(10L);
+    readonly.setEvent(Request.READONLY_EVENT);
+
+    Object[] messages = {EventFrame.HEARTBEAT_REQUEST, EventFrame.HEARTBEAT_RESPONSE,
+        EventFrame.READONLY, heartbeat, readonly};
+    EventFrame[] expected = {EventFrame.HEARTBEAT_REQUEST, EventFrame.HEARTBEAT_RESPONSE,
+        EventFrame.READONLY, EventFrame.HEARTBEAT_RESPONSE, EventFrame.READONLY};
+    ByteBuf out = PooledByteBufAllocator.DEFAULT.heapBuffer();
+    try {
+      for (int i = 0; i < messages.length; i++) {
+        out.clear();
+        codec.encode(channel, new NettyBackedChannelBuffer(out), messages[i]);
+        assertEquals(16, out.readableBytes());
+        assertEquals(0, out.getInt(12));
+        assertSame(expected[i], codec.decode(channel, new NettyBackedChannelBuffer(out)));
+        assertEquals(0, out.readableBytes());
+      }
+    } finally {
+      out.release();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package dubbo.mini.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.ChannelHandlerAdapter;
+import dubbo.mini.remote.MultiMessageHandler;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.WrappedChannelHandler;
+import dubbo.mini.remote.support.MultiMessage;
+import dubbo.mini.support.ExtensionLoader;
+import dubbo.mini.support.MockChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+class DispatcherTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null);
+
+  private final BlockingQueue<Thread> threads = new LinkedBlockingQueue<>();
+
+  private final ChannelEventHandler recorder = new ChannelHandlerAdapter() {
+    @Override
+    public void received(NetChannel channel, Object message) {
+      threads.add(Thread.currentThread());
+    }
+  };
+
+  @Test
+  void responseHandledInlineRequestDispatched() throws Exception {
+    for (String name : new String[]{"all", "message", "execution", "connection", "serial"}) {
+      ChannelEventHandler handler = dispatch(name);
+      MockChannel channel = new MockChannel(URL);
+
+      handler.received(channel, new Response(1L));
+      assertSame(Thread.currentThread(), threads.poll(3, TimeUnit.SECONDS), name);
+
+      handler.received(channel, new Request(2L));
+      assertNotSame(Thread.currentThread(), threads.poll(3, TimeUnit.SECONDS), name);
+    }
+  }
+
+  @Test
+  void directRunsOnCallerThread() throws Exception {
+    ChannelEventHandler handler = dispatch("direct");
+    handler.received(new MockChannel(URL), new Request(1L));
+    assertSame(Thread.currentThread(), threads.poll(3, TimeUnit.SECONDS));
+  }
+
+  @TestFactory
+  Stream<DynamicTest> batchSubmittedAsOneTask() {
+    return Stream.of("all", "message", "execution", "connection", "serial")
+        .map(name -> DynamicTest.dynamicTest(name, () -> {
+          ChannelEventHandler handler = ExtensionLoader.getExtensionLoader(Dispatcher.class)
+              .getExtension(name).dispatch(new MultiMessageHandler(recorder), URL);
+          handler.received(new MockChannel(URL),
+              MultiMessage.createFromArray(new Response(1L), new Request(2L), new Request(3L)));
+
+          // 响应在 IO 线程处理，两个请求在同一个任务里
+          assertSame(Thread.currentThread(), threads.poll(3, TimeUnit.SECONDS), name);
+          Thread worker = threads.poll(3, TimeUnit.SECONDS);
+          assertNotNull(worker, name);
+          assertNotSame(Thread.currentThread(), worker, name);
+          assertSame(worker, threads.poll(3, TimeUnit.SECONDS), name);
+          assertEquals(1, ((ThreadPoolExecutor) ((WrappedChannelHandler) handler).getExecutor())
+              .getTaskCount(), name);
+        }));
+  }
+
+  private ChannelEventHandler dispatch(String name) {
+    return ExtensionLoader.getExtensionLoader(Dispatcher.class).getExtension(name)
+        .dispatch(recorder, URL);
+  }
+}
@@ -0,0 +1,148 @@
+package dubbo.mini.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.ThreadPool.VirtualThreadExecutor;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.ChannelHandlerAdapter;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.support.MultiMessage;
+import dubbo.mini.support.MockChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SerialChannelHandlerTest {
+
+  @Test
+  void keepOrderPerChannel() throws Exception {
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.THREADS_KEY, 4);
+    int count = 500;
+    CountDownLatch done = new CountDownLatch(count * 2);
+    Map<NetChannel, List<Long>> received = new ConcurrentHashMap<>();
+    SerialChannelHandler handler = new SerialChannelHandler(new ChannelHandlerAdapter() {
+      @Override
+      public void received(NetChannel channel, Object message) {
+        received.computeIfAbsent(channel, c -> Collections.synchronizedList(new ArrayList<>()))
+            .add(((Request) message).getId());
+        done.countDown();
+      }
+    }, url);
+
+    MockChannel a = new MockChannel(url);
+    MockChannel b = new MockChannel(url);
+    for (long i = 0; i < count; i++) {
+      handler.received(a, new Request(i));
+      handler.received(b, new Request(i));
+    }
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    for (MockChannel channel : new MockChannel[]{a, b}) {
+      List<Long> ids = received.get(channel);
+      for (int i = 0; i < count; i++) {
+        assertEquals(i, ids.get(i).longValue());
+      }
+    }
+    handler.close();
+  }
+
+  @Test
+  void rejectWhenChannelQueueFull() throws Exception {
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.SERIAL_QUEUES_KEY, 2);
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SerialChannelHandler handler = new SerialChannelHandler(new ChannelHandlerAdapter() {
+      @Override
+      public void received(NetChannel channel, Object message) {
+        blocked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException ignored) {
+        }
+      }
+    }, url);
+
+    MockChannel slow = new MockChannel(url);
+    handler.received(slow, new Request(1L));
+    assertTrue(blocked.await(5, TimeUnit.SECONDS));
+    handler.received(slow, new Request(2L));
+    handler.received(slow, new Request(3L));
+    handler.received(slow, new Request(4L));
+
+    assertEquals(1, slow.getSentObjects().size());
+    Response response = (Response) slow.getSentObjects().get(0);
+    assertEquals(4L, response.getId());
+    assertEquals(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR, response.getStatus());
+
+    // 其它连接不受影响
+    MockChannel other = new MockChannel(url);
+    handler.received(other, new Request(5L));
+    assertTrue(other.getSentObjects().isEmpty());
+
+    release.countDown();
+    handler.close();
+  }
+
+  @Test
+  void countFramesOfBatch() throws Exception {
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.SERIAL_QUEUES_KEY, 4);
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SerialChannelHandler handler = new SerialChannelHandler(new ChannelHandlerAdapter() {
+      @Override
+      public void received(NetChannel channel, Object message) {
+        blocked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException ignored) {
+        }
+      }
+    }, url);
+
+    MockChannel channel = new MockChannel(url);
+    handler.received(channel, new Request(0L));
+    assertTrue(blocked.await(5, TimeUnit.SECONDS));
+    // 3 条排队，再来一批 2 条超过上限，整批拒绝
+    handler.received(channel, batch(1L, 3));
+    handler.received(channel, batch(4L, 2));
+
+    List<Object> sent = channel.getSentObjects();
+    assertEquals(2, sent.size());
+    for (int i = 0; i < sent.size(); i++) {
+      Response response = (Response) sent.get(i);
+      assertEquals(4L + i, response.getId());
+      assertEquals(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR, response.getStatus());
+    }
+
+    release.countDown();
+    handler.close();
+  }
+
+  @Test
+  void useConfiguredThreadPool() {
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.THREADPOOL_KEY, VirtualThreadExecutor.NAME);
+    SerialChannelHandler handler = new SerialChannelHandler(new ChannelHandlerAdapter(), url);
+    assertTrue(handler.getExecutor() instanceof VirtualThreadExecutor);
+    handler.close();
+  }
+
+  private static MultiMessage batch(long firstId, int count) {
+    MultiMessage batch = MultiMessage.create();
+    for (int i = 0; i < count; i++) {
+      batch.addMessage(new Request(firstId + i));
+    }
+    return batch;
+  }
+}
@@ -0,0 +1,137 @@
+package dubbo.mini.exchange.header;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.utils.NetUtils;
+import dubbo.mini.exception.RpcException;
+import dubbo.mini.protocol.Exporter;
+import dubbo.mini.protocol.Protocol;
+import dubbo.mini.remote.OverloadException;
+import dubbo.mini.rpc.Invoker;
+import dubbo.mini.rpc.ProxyFactory;
+import dubbo.mini.rpc.RpcContext;
+import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.support.DemoService;
+import dubbo.mini.support.ExtensionLoader;
+import dubbo.mini.support.ServDemoServiceImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @Test
+  void shedWhenLimitReached() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, TARGET);
+    int limit = limiter.getLimit();
+    for (int i = 0; i < limit; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    assertFalse(limiter.tryAcquire());
+    limiter.release(0);
+    assertTrue(limiter.tryAcquire());
+  }
+
+  @Test
+  void shrinkOnQueueDelayAndRecover() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, TARGET);
+    int initial = limiter.getLimit();
+    for (int i = 0; i < 50; i++) {
+      limiter.tryAcquire();
+      limiter.release(TARGET * 10);
+    }
+    assertTrue(limiter.getLimit() < initial);
+    assertEquals(0, limiter.getInflight());
+
+    int shrunk = limiter.getLimit();
+    for (int i = 0; i < 500; i++) {
+      // 并发打满，排队时间正常
+      while (limiter.tryAcquire()) {
+      }
+      limiter.release(0);
+      limiter.release(0);
+      limiter.tryAcquire();
+    }
+    assertTrue(limiter.getLimit() > shrunk);
+  }
+
+  @Test
+  void providerShedsWhenRequestsQueue() throws Exception {
+    ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class)
+        .getDefaultExtension();
+    Protocol protocol = ExtensionLoader.getExtensionLoader(Protocol.class).getDefaultExtension();
+    // 4 个线程、无界队列：线程池本身不会拒绝，被拒绝的只能是限流器。
+    // 关闭解码合并，请求逐条投递到线程池，而不是整批在一个任务里串行执行
+    NetURL url = new NetURL("dubbo", "127.0.0.1", NetUtils.getAvailablePort(),
+        DemoService.class.getName(), null)
+        .addParameter(Constants.INTERFACES, DemoService.class.getName())
+        .addParameter(Constants.ADAPTIVE_LIMITER_KEY, true)
+        .addParameter(Constants.ADAPTIVE_QUEUE_TARGET_KEY, 1)
+        .addParameter(Constants.THREADS_KEY, 4)
+        .addParameter(Constants.QUEUES_KEY, -1)
+        .addParameter(Constants.DECODE_BATCH_KEY, false)
+        .addParameter(Constants.TIMEOUT_KEY, 10000);
+    DemoService service = new ServDemoServiceImpl() {
+      @Override
+      public String sayHello(String name) {
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.sayHello(name);
+      }
+    };
+    Exporter<DemoService> exporter = protocol
+        .export(proxyFactory.getInvoker(service, DemoService.class, url));
+    Invoker<DemoService> invoker = protocol.refer(DemoService.class, url);
+    try {
+      List<CompletableFuture<Object>> futures = new ArrayList<>();
+      for (int i = 0; i < 60; i++) {
+        try {
+          invoker.invoke(asyncSayHello("c" + i));
+        } catch (RpcException e) {
+          // 收到过载响应后客户端开始退避
+          assertTrue(e.isLimitExceed());
+          break;
+        }
+        futures.add(RpcContext.getContext().getCompletableFuture());
+      }
+      int ok = 0;
+      int overloaded = 0;
+      for (CompletableFuture<Object> future : futures) {
+        try {
+          future.get(10, TimeUnit.SECONDS);
+          ok++;
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof OverloadException, e.getCause().toString());
+          overloaded++;
+        }
+      }
+      // 排队时间远超目标，上限收缩到线程数以下，后面的请求在服务端被拒绝
+      assertTrue(ok > 0);
+      assertTrue(overloaded > 0, "no request was shed, " + ok + " succeeded");
+    } finally {
+      invoker.destroy();
+      exporter.unexport();
+    }
+  }
+
+  private static RpcInvocation asyncSayHello(String name) {
+    RpcInvocation inv = new RpcInvocation();
+    inv.setMethodName("sayHello");
+    inv.setParameterTypes(new Class<?>[]{String.class});
+    inv.setArguments(new Object[]{name});
+    inv.setAttachment(Constants.ASYNC_KEY, "true");
+    return inv;
+  }
+}
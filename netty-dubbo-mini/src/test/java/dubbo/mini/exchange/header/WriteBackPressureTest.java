@@ -0,0 +1,78 @@
+package dubbo.mini.exchange.header;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelUnwritableException;
+import dubbo.mini.support.MockChannel;
+import dubbo.mini.support.ResponseFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class WriteBackPressureTest {
+
+  @Test
+  void failFastWhenUnwritable() {
+    MockChannel channel = unwritableChannel(url(Constants.UNWRITABLE_POLICY_FAIL));
+    HeaderExchangeChannel exchangeChannel = new HeaderExchangeChannel(channel);
+
+    assertThrows(ChannelUnwritableException.class, () -> exchangeChannel.request("hello"));
+    assertTrue(channel.getSentObjects().isEmpty());
+  }
+
+  @Test
+  void queueUntilWritable() throws Exception {
+    MockChannel channel = unwritableChannel(url(Constants.UNWRITABLE_POLICY_QUEUE)
+        .addParameter(Constants.UNWRITABLE_QUEUE_SIZE_KEY, 1));
+    HeaderExchangeChannel exchangeChannel = new HeaderExchangeChannel(channel);
+
+    ResponseFuture future = exchangeChannel.request("hello");
+    assertThrows(ChannelUnwritableException.class, () -> exchangeChannel.request("full"));
+    assertTrue(channel.getSentObjects().isEmpty());
+
+    // 恢复可写后由可写性通知写出
+    channel.setWritable(true);
+    WriteBackPressure.writabilityChanged(channel);
+    assertEquals(1, channel.getSentObjects().size());
+    future.getCompletableFuture().cancel(false);
+  }
+
+  @Test
+  void blockUntilWritable() throws Exception {
+    MockChannel channel = unwritableChannel(url(Constants.UNWRITABLE_POLICY_BLOCK)
+        .addParameter(Constants.UNWRITABLE_WAIT_KEY, 200));
+    HeaderExchangeChannel exchangeChannel = new HeaderExchangeChannel(channel);
+
+    assertThrows(ChannelUnwritableException.class, () -> exchangeChannel.request("timeout"));
+    assertTrue(channel.getSentObjects().isEmpty());
+
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      scheduler.schedule(() -> {
+        channel.setWritable(true);
+        WriteBackPressure.writabilityChanged(channel);
+      }, 10, TimeUnit.MILLISECONDS);
+      ResponseFuture future = exchangeChannel.request("hello", 5000);
+      assertEquals(1, channel.getSentObjects().size());
+      future.getCompletableFuture().cancel(false);
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  private static NetURL url(String policy) {
+    return new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.UNWRITABLE_POLICY_KEY, policy);
+  }
+
+  private static MockChannel unwritableChannel(NetURL url) {
+    MockChannel channel = new MockChannel(url);
+    channel.setWritable(false);
+    return channel;
+  }
+}
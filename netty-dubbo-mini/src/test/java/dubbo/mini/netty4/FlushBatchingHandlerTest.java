@@ -0,0 +1,103 @@
+package dubbo.mini.netty4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FlushBatchingHandlerTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+      .addParameter(Constants.FLUSH_CONSOLIDATION_KEY, true)
+      .addParameter(Constants.FLUSH_MAX_BYTES_KEY, 1024);
+
+  private final AtomicInteger flushes = new AtomicInteger();
+
+  private EventLoopGroup group;
+  private Channel server;
+  private Channel client;
+
+  @BeforeEach
+  void setUp() {
+    group = new DefaultEventLoopGroup(1);
+    LocalAddress address = new LocalAddress("flush-batching-test");
+    server = new ServerBootstrap().group(group).channel(LocalServerChannel.class)
+        .childHandler(new ChannelInboundHandlerAdapter() {
+          @Override
+          public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ReferenceCountUtil.release(msg);
+          }
+        })
+        .bind(address).syncUninterruptibly().channel();
+    client = new Bootstrap().group(group).channel(LocalChannel.class)
+        .handler(new ChannelInitializer<Channel>() {
+          @Override
+          protected void initChannel(Channel ch) {
+            // 统计真正到达 socket 的 flush 次数
+            ch.pipeline().addLast(new ChannelOutboundHandlerAdapter() {
+              @Override
+              public void flush(ChannelHandlerContext ctx) {
+                flushes.incrementAndGet();
+                ctx.flush();
+              }
+            });
+            ch.pipeline().addLast(new FlushBatchingHandler(URL));
+          }
+        })
+        .connect(address).syncUninterruptibly().channel();
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close().syncUninterruptibly();
+    server.close().syncUninterruptibly();
+    group.shutdownGracefully().syncUninterruptibly();
+  }
+
+  @Test
+  void flushOncePerLoopTurn() throws Exception {
+    AtomicInteger flushedInTurn = new AtomicInteger(-1);
+    // 模拟同一轮 event loop 中执行的一批写任务
+    client.eventLoop().submit(() -> {
+      for (int i = 0; i < 3; i++) {
+        client.writeAndFlush(Unpooled.wrappedBuffer(new byte[16]));
+      }
+      flushedInTurn.set(flushes.get());
+    }).sync();
+    // 等待合并后的 flush 任务执行
+    client.eventLoop().submit(() -> {
+    }).sync();
+
+    assertEquals(0, flushedInTurn.get());
+    assertEquals(1, flushes.get());
+  }
+
+  @Test
+  void flushImmediatelyWhenBytesThresholdReached() throws Exception {
+    AtomicInteger flushedInTurn = new AtomicInteger(-1);
+    client.eventLoop().submit(() -> {
+      client.writeAndFlush(Unpooled.wrappedBuffer(new byte[2048]));
+      flushedInTurn.set(flushes.get());
+    }).sync();
+
+    assertEquals(1, flushedInTurn.get());
+  }
+}
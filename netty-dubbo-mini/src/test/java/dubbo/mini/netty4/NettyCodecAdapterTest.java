@@ -0,0 +1,97 @@
+package dubbo.mini.netty4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.buffer.ChannelBuffer;
+import dubbo.mini.codec.Codec;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelHandlerAdapter;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.support.MultiMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class NettyCodecAdapterTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null);
+
+  @Test
+  void oneMultiMessagePerRead() {
+    EmbeddedChannel channel = decoderChannel(URL);
+    channel.writeInbound(frames(3, 0));
+
+    Object msg = channel.readInbound();
+    assertTrue(msg instanceof MultiMessage);
+    MultiMessage batch = (MultiMessage) msg;
+    assertEquals(3, batch.size());
+    assertEquals(Arrays.asList(0, 1, 2), Arrays.asList(batch.get(0), batch.get(1), batch.get(2)));
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void singleFrameNotWrapped() {
+    EmbeddedChannel channel = decoderChannel(URL);
+    // 一个完整帧加半个帧，只解出一条
+    channel.writeInbound(frames(1, 2));
+
+    assertEquals(0, (Integer) channel.readInbound());
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void batchDisabled() {
+    EmbeddedChannel channel = decoderChannel(
+        URL.addParameter(Constants.DECODE_BATCH_KEY, false));
+    channel.writeInbound(frames(2, 0));
+
+    assertEquals(0, (Integer) channel.readInbound());
+    assertEquals(1, (Integer) channel.readInbound());
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+
+  private static EmbeddedChannel decoderChannel(NetURL url) {
+    NettyCodecAdapter adapter = new NettyCodecAdapter(new IntCodec(), url,
+        new ChannelHandlerAdapter());
+    return new EmbeddedChannel(adapter.getDecoder());
+  }
+
+  private static ByteBuf frames(int count, int trailing) {
+    ByteBuf buf = Unpooled.buffer();
+    for (int i = 0; i < count; i++) {
+      buf.writeInt(i);
+    }
+    buf.writeZero(trailing);
+    return buf;
+  }
+
+  /**
+   * 每帧一个 4 字节整数
+   */
+  private static final class IntCodec implements Codec {
+
+    @Override
+    public void encode(NetChannel channel, ChannelBuffer buffer, Object message) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object decode(NetChannel channel, ChannelBuffer buffer) {
+      if (buffer.readableBytes() < 4) {
+        return DecodeResult.NEED_MORE_INPUT;
+      }
+      byte[] bytes = new byte[4];
+      buffer.readBytes(bytes);
+      return ((bytes[0] & 0xff) << 24) | ((bytes[1] & 0xff) << 16) | ((bytes[2] & 0xff) << 8)
+          | (bytes[3] & 0xff);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package dubbo.mini.netty4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import org.junit.jupiter.api.Test;
+
+class TransportResourcesTest {
+
+  private static final String NAME = "TestWorker";
+
+  @Test
+  void shareGroupAndShutdownOnLastRelease() {
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.IO_THREADS_KEY, 2);
+    boolean epoll = NettyEventLoopFactory.useEpoll(url);
+    EventLoopGroup first = TransportResources.acquire(NAME, url, epoll);
+    EventLoopGroup second = TransportResources.acquire(NAME, url.setPort(20881), epoll);
+    assertSame(first, second);
+    assertEquals(2, TransportResources.references(NAME, epoll));
+
+    TransportResources.release(first);
+    assertFalse(first.isShuttingDown());
+    TransportResources.release(second);
+    assertTrue(first.isShuttingDown());
+    assertEquals(0, TransportResources.references(NAME, epoll));
+
+    // 全部释放后再获取会重新创建
+    EventLoopGroup third = TransportResources.acquire(NAME, url, epoll);
+    assertNotSame(first, third);
+    TransportResources.release(third);
+  }
+
+  @Test
+  void pinByAddress() {
+    NetURL url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.IO_THREADS_KEY, 4)
+        .addParameter(Constants.IO_AFFINITY_KEY, Constants.IO_AFFINITY_ADDRESS);
+    EventLoopGroup group = TransportResources.acquire(NAME, url,
+        NettyEventLoopFactory.useEpoll(url));
+    try {
+      EventLoopGroup loop = TransportResources.select(group, url);
+      assertTrue(loop instanceof EventLoop);
+      assertSame(loop, TransportResources.select(group, url));
+      assertSame(group, TransportResources.select(group,
+          url.addParameter(Constants.IO_AFFINITY_KEY, Constants.IO_AFFINITY_NONE)));
+    } finally {
+      TransportResources.release(group);
+    }
+  }
+}
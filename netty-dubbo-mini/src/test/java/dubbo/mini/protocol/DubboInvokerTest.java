@@ -0,0 +1,91 @@
+package dubbo.mini.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.utils.NetUtils;
+import dubbo.mini.rpc.Invoker;
+import dubbo.mini.rpc.ProxyFactory;
+import dubbo.mini.rpc.Result;
+import dubbo.mini.rpc.RpcContext;
+import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.support.DemoService;
+import dubbo.mini.support.ExtensionLoader;
+import dubbo.mini.support.ServDemoServiceImpl;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DubboInvokerTest {
+
+  private static final BlockingQueue<String> RECEIVED = new LinkedBlockingQueue<>();
+
+  private static Exporter<DemoService> exporter;
+  private static Invoker<DemoService> invoker;
+
+  @BeforeAll
+  static void setUp() {
+    ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class)
+        .getDefaultExtension();
+    Protocol protocol = ExtensionLoader.getExtensionLoader(Protocol.class).getDefaultExtension();
+    NetURL url = new NetURL("dubbo", "127.0.0.1", NetUtils.getAvailablePort(),
+        DemoService.class.getName(), null)
+        .addParameter(Constants.INTERFACES, DemoService.class.getName());
+    DemoService service = new ServDemoServiceImpl() {
+      @Override
+      public String sayHello(String name) {
+        RECEIVED.add(name);
+        return super.sayHello(name);
+      }
+    };
+    exporter = protocol.export(proxyFactory.getInvoker(service, DemoService.class, url));
+    invoker = protocol.refer(DemoService.class, url);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    invoker.destroy();
+    exporter.unexport();
+  }
+
+  @Test
+  void sync() throws Throwable {
+    Result result = invoker.invoke(sayHello("sync"));
+    assertEquals("server,sync", result.recreate());
+  }
+
+  @Test
+  void async() throws Exception {
+    RpcInvocation inv = sayHello("async");
+    inv.setAttachment(Constants.ASYNC_KEY, "true");
+    Result result = invoker.invoke(inv);
+    assertNull(result.getValue());
+    CompletableFuture<String> future = RpcContext.getContext().getCompletableFuture();
+    assertEquals("server,async", future.get(3, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void oneway() throws Exception {
+    RECEIVED.clear();
+    RpcInvocation inv = sayHello("oneway");
+    inv.setAttachment(Constants.RETURN_KEY, "false");
+    Result result = invoker.invoke(inv);
+    assertNull(result.getValue());
+    assertNull(RpcContext.getContext().getFuture());
+    assertEquals("oneway", RECEIVED.poll(3, TimeUnit.SECONDS));
+  }
+
+  private static RpcInvocation sayHello(String name) {
+    RpcInvocation inv = new RpcInvocation();
+    inv.setMethodName("sayHello");
+    inv.setParameterTypes(new Class<?>[]{String.class});
+    inv.setArguments(new Object[]{name});
+    return inv;
+  }
+}
@@ -1,8 +1,12 @@
 package dubbo.mini.protocol;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import dubbo.mini.common.Constants;
 import dubbo.mini.common.NetURL;
+import dubbo.mini.common.utils.NetUtils;
 import dubbo.mini.rpc.Invoker;
 import dubbo.mini.rpc.ProxyFactory;
 import dubbo.mini.rpc.Result;
@@ -10,6 +14,7 @@ import dubbo.mini.rpc.RpcInvocation;
 import dubbo.mini.support.DemoService;
 import dubbo.mini.support.ExtensionLoader;
 import dubbo.mini.support.ServDemoServiceImpl;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 
 class DubboProtocolTest {
@@ -50,4 +55,37 @@ class DubboProtocolTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  void providerRunsInServerPool() {
+    ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class)
+        .getDefaultExtension();
+    Protocol protocol = ExtensionLoader.getExtensionLoader(Protocol.class).getDefaultExtension();
+    NetURL url = new NetURL("dubbo", "127.0.0.1", NetUtils.getAvailablePort(),
+        DemoService.class.getName(), null)
+        .addParameter(Constants.INTERFACES, DemoService.class.getName())
+        .addParameter(Constants.DISPATCHER_KEY, "serial");
+    AtomicReference<String> thread = new AtomicReference<>();
+    DemoService service = new ServDemoServiceImpl() {
+      @Override
+      public String sayHello(String name) {
+        thread.set(Thread.currentThread().getName());
+        return super.sayHello(name);
+      }
+    };
+    Exporter<DemoService> exporter = protocol
+        .export(proxyFactory.getInvoker(service, DemoService.class, url));
+    Invoker<DemoService> invoker = protocol.refer(DemoService.class, url);
+    try {
+      RpcInvocation inv = new RpcInvocation();
+      inv.setMethodName("sayHello");
+      inv.setParameterTypes(new Class<?>[]{String.class});
+      inv.setArguments(new Object[]{"pool"});
+      assertEquals("server,pool", invoker.invoke(inv).getValue());
+      // 服务端也经过派发层，业务在服务端线程池而不是 IO 线程中执行
+      assertTrue(thread.get().startsWith("DubboServerHandler"), thread.get());
+    } finally {
+      invoker.destroy();
+      exporter.unexport();
+    }
+  }
+}
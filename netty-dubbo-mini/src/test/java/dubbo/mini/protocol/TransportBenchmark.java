@@ -0,0 +1,88 @@
+package dubbo.mini.protocol;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.utils.NetUtils;
+import dubbo.mini.rpc.Invoker;
+import dubbo.mini.rpc.ProxyFactory;
+import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.support.DemoService;
+import dubbo.mini.support.ExtensionLoader;
+import dubbo.mini.support.ServDemoServiceImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 和 DubboProtocolTest 一样的 sayHello 往返，分别跑 nio 和 epoll 传输，比较延迟和 gc.alloc.rate.norm。
+ * <p>
+ * 非 Linux 平台上 epoll 会退回 nio，两组结果相同。不参与单元测试。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportBenchmark {
+
+  @Param({Constants.NETTY_TRANSPORT_NIO, Constants.NETTY_TRANSPORT_EPOLL})
+  public String transport;
+
+  private Exporter<DemoService> exporter;
+  private Invoker<DemoService> invoker;
+  private RpcInvocation invocation;
+
+  @Setup
+  public void setup() {
+    ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class)
+        .getDefaultExtension();
+    Protocol protocol = ExtensionLoader.getExtensionLoader(Protocol.class).getDefaultExtension();
+    NetURL url = new NetURL("dubbo", "127.0.0.1", NetUtils.getAvailablePort(),
+        DemoService.class.getName(), null)
+        .addParameter(Constants.INTERFACES, DemoService.class.getName())
+        .addParameter(Constants.NETTY_TRANSPORT_KEY, transport);
+    exporter = protocol
+        .export(proxyFactory.getInvoker(new ServDemoServiceImpl(), DemoService.class, url));
+    invoker = protocol.refer(DemoService.class, url);
+
+    invocation = new RpcInvocation();
+    invocation.setMethodName("sayHello");
+    invocation.setParameterTypes(new Class<?>[]{String.class});
+    invocation.setArguments(new Object[]{"test"});
+  }
+
+  @TearDown
+  public void tearDown() {
+    invoker.destroy();
+    exporter.unexport();
+  }
+
+  @Benchmark
+  public Object sayHello() {
+    return invoker.invoke(invocation).getValue();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(TransportBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+}
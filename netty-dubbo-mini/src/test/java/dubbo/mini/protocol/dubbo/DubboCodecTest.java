@@ -0,0 +1,139 @@
+package dubbo.mini.protocol.dubbo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.buffer.NettyBackedChannelBuffer;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.serialize.ObjectOutput;
+import dubbo.mini.support.MockChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.io.IOException;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+
+class DubboCodecTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+      .addParameter(Constants.DECODE_IN_IO_THREAD_KEY, false);
+
+  @Test
+  void deferredDecodeRetainsSliceUntilDecoded() throws Exception {
+    ByteBuf buf = encode(1L);
+    try {
+      NettyBackedChannelBuffer buffer = new NettyBackedChannelBuffer(buf);
+      Request request = (Request) new DubboCodec().decode(new MockChannel(URL), buffer);
+      // 消息体以切片的形式保留，没有拷贝
+      assertEquals(2, buf.refCnt());
+      assertEquals(0, buf.readableBytes());
+
+      DecodeableRpcInvocation inv = (DecodeableRpcInvocation) request.getData();
+      inv.decode();
+      assertEquals(1, buf.refCnt());
+      assertEquals("sayHello", inv.getMethodName());
+      assertArrayEquals(new Object[]{"world"}, inv.getArguments());
+      assertEquals("demo", inv.getAttachment(Constants.PATH_KEY));
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  void discardReleasesSlice() throws Exception {
+    ByteBuf buf = encode(2L);
+    try {
+      Request request = (Request) new DubboCodec()
+          .decode(new MockChannel(URL), new NettyBackedChannelBuffer(buf));
+      assertEquals(2, buf.refCnt());
+      ((DecodeableRpcInvocation) request.getData()).discard();
+      assertEquals(1, buf.refCnt());
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  void brokenCompressedRequestReachesHandler() throws Exception {
+    NetURL url = URL.addParameter(Constants.DECODE_IN_IO_THREAD_KEY, true);
+    ByteBuf buf = encodeCompressed(new DubboCodec() {
+      @Override
+      protected void encodeRequestData(NetChannel channel, ObjectOutput out, Object data)
+          throws IOException {
+        // 参数类型在解码端不存在，反序列化中途失败，后面的参数和 attachments 没有读
+        out.writeUTF("demo");
+        out.writeUTF("1.0.0");
+        out.writeUTF("sayHello");
+        out.writeUTF("Ldubbo/mini/Missing;");
+        out.writeObject(largeString());
+        out.writeObject(new HashMap<String, String>());
+      }
+    }, 3L);
+    try {
+      Request request = (Request) new DubboCodec()
+          .decode(new MockChannel(url), new NettyBackedChannelBuffer(buf));
+      assertEquals(3L, request.getId());
+      assertTrue(request.isBroken());
+      assertEquals(0, buf.readableBytes());
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  void deferredDecodeOfCompressedRequest() throws Exception {
+    ByteBuf buf = encodeCompressed(new DubboCodec(), 4L);
+    try {
+      Request request = (Request) new DubboCodec()
+          .decode(new MockChannel(URL), new NettyBackedChannelBuffer(buf));
+      // codec 已释放自己持有的解压 buffer，切片仍可读
+      DecodeableRpcInvocation inv = (DecodeableRpcInvocation) request.getData();
+      inv.decode();
+      assertFalse(request.isBroken());
+      assertArrayEquals(new Object[]{largeString()}, inv.getArguments());
+    } finally {
+      buf.release();
+    }
+  }
+
+  private static String largeString() {
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < 8 * 1024) {
+      sb.append("compressed-body-").append(sb.length() % 31);
+    }
+    return sb.toString();
+  }
+
+  private ByteBuf encodeCompressed(DubboCodec codec, long id) throws Exception {
+    RpcInvocation inv = new RpcInvocation("sayHello", new Class<?>[]{String.class},
+        new Object[]{largeString()});
+    inv.setAttachment(Constants.PATH_KEY, "demo");
+    inv.setAttachment(Constants.VERSION_KEY, "1.0.0");
+    Request request = new Request(id);
+    request.setData(inv);
+
+    ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+    codec.encode(new MockChannel(URL.addParameter(Constants.COMPRESSOR_KEY, "snappy")),
+        new NettyBackedChannelBuffer(buf), request);
+    return buf;
+  }
+
+  private ByteBuf encode(long id) throws Exception {
+    RpcInvocation inv = new RpcInvocation("sayHello", new Class<?>[]{String.class},
+        new Object[]{"world"});
+    inv.setAttachment(Constants.PATH_KEY, "demo");
+    inv.setAttachment(Constants.VERSION_KEY, "1.0.0");
+    Request request = new Request(id);
+    request.setData(inv);
+
+    ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+    new DubboCodec().encode(new MockChannel(URL), new NettyBackedChannelBuffer(buf), request);
+    return buf;
+  }
+}
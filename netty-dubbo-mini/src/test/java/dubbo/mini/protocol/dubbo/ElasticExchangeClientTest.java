@@ -0,0 +1,222 @@
+package dubbo.mini.protocol.dubbo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.utils.NetUtils;
+import dubbo.mini.exception.RpcException;
+import dubbo.mini.exchange.ExchangeClient;
+import dubbo.mini.protocol.Exporter;
+import dubbo.mini.protocol.Protocol;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.RemotingException;
+import dubbo.mini.rpc.Invoker;
+import dubbo.mini.rpc.ProxyFactory;
+import dubbo.mini.rpc.RpcContext;
+import dubbo.mini.rpc.RpcInvocation;
+import dubbo.mini.support.DemoService;
+import dubbo.mini.support.ExtensionLoader;
+import dubbo.mini.support.ResponseFuture;
+import dubbo.mini.support.ServDemoServiceImpl;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class ElasticExchangeClientTest {
+
+  @Test
+  void growsWhenWindowSaturatedAndRejectsAtMax() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class)
+        .getDefaultExtension();
+    Protocol protocol = ExtensionLoader.getExtensionLoader(Protocol.class).getDefaultExtension();
+    NetURL url = new NetURL("dubbo", "127.0.0.1", NetUtils.getAvailablePort(),
+        DemoService.class.getName(), null)
+        .addParameter(Constants.INTERFACES, DemoService.class.getName())
+        .addParameter(Constants.MAX_CONNECTIONS_KEY, 2)
+        .addParameter(Constants.INFLIGHT_WINDOW_KEY, 1)
+        .addParameter(Constants.TIMEOUT_KEY, 5000);
+    DemoService service = new ServDemoServiceImpl() {
+      @Override
+      public String sayHello(String name) {
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.sayHello(name);
+      }
+    };
+    Exporter<DemoService> exporter = protocol
+        .export(proxyFactory.getInvoker(service, DemoService.class, url));
+    Invoker<DemoService> invoker = protocol.refer(DemoService.class, url);
+    try {
+      // 每个连接窗口为 1：第二个请求触发后台扩容，新连接建好前仍发往第一个连接；
+      // 两个连接都满后超过上限
+      List<CompletableFuture<Object>> futures = new ArrayList<>();
+      RpcException e = null;
+      for (int i = 0; i < 50 && e == null; i++) {
+        try {
+          invoker.invoke(asyncSayHello("c" + i));
+          futures.add(RpcContext.getContext().getCompletableFuture());
+        } catch (RpcException overloaded) {
+          e = overloaded;
+        }
+        Thread.sleep(20);
+      }
+      assertTrue(e != null && e.isLimitExceed(), String.valueOf(e));
+      assertTrue(futures.size() >= 3, futures.size() + " requests accepted");
+
+      release.countDown();
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals("server,c" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      release.countDown();
+      invoker.destroy();
+      exporter.unexport();
+    }
+  }
+
+  @Test
+  void noGrowthWhenAllDisconnected() {
+    List<FakeClient> created = new ArrayList<>();
+    ElasticExchangeClient client = new ElasticExchangeClient(poolUrl(), 1,
+        () -> newClient(created, false), c -> {
+        });
+    try {
+      for (int i = 0; i < 3; i++) {
+        assertThrows(RemotingException.class, () -> client.request("r"));
+      }
+      assertEquals(1, created.size());
+      assertEquals(1, client.getConnectionCount());
+    } finally {
+      client.close();
+    }
+  }
+
+  @Test
+  void shrinkRetiresIdleConnectionThenCloses() throws Exception {
+    List<FakeClient> created = new CopyOnWriteArrayList<>();
+    AtomicReference<ElasticExchangeClient> closed = new AtomicReference<>();
+    ElasticExchangeClient client = new ElasticExchangeClient(poolUrl(), 1,
+        () -> newClient(created, true), closed::set);
+    client.request("r0");
+    // 窗口已满，后台扩容，这个请求仍发往第一个连接
+    client.request("r1");
+    awaitConnections(client, 2);
+    assertEquals(2, created.get(0).futures.size());
+    client.request("r2");
+    created.get(1).futures.get(0).complete("done");
+
+    Thread.sleep(50);
+    client.shrink();
+    assertEquals(1, client.getConnectionCount());
+    assertTrue(created.get(1).closed);
+    assertFalse(created.get(0).closed);
+
+    client.close();
+    assertTrue(created.get(0).closed);
+    assertSame(client, closed.get());
+  }
+
+  @Test
+  void closeReleasesOnlyOnce() {
+    AtomicInteger closed = new AtomicInteger();
+    ElasticExchangeClient client = new ElasticExchangeClient(poolUrl(), 1,
+        () -> newClient(new ArrayList<>(), true), c -> closed.incrementAndGet());
+    assertTrue(client.retain());
+    client.close();
+    assertEquals(0, closed.get());
+    client.close();
+    client.close();
+    assertEquals(1, closed.get());
+    assertFalse(client.retain());
+  }
+
+  private static void awaitConnections(ElasticExchangeClient client, int count)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (client.getConnectionCount() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(count, client.getConnectionCount());
+  }
+
+  private static NetURL poolUrl() {
+    return new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.MAX_CONNECTIONS_KEY, 4)
+        .addParameter(Constants.INFLIGHT_WINDOW_KEY, 1)
+        .addParameter(Constants.CONNECTION_IDLE_TIMEOUT_KEY, 1);
+  }
+
+  private static ExchangeClient newClient(List<FakeClient> created, boolean connected) {
+    FakeClient fake = new FakeClient(connected);
+    created.add(fake);
+    return fake.proxy();
+  }
+
+  /**
+   * 只实现连接池用到的方法
+   */
+  private static final class FakeClient {
+
+    final boolean connected;
+
+    final List<CompletableFuture<Object>> futures = new CopyOnWriteArrayList<>();
+
+    volatile boolean closed;
+
+    FakeClient(boolean connected) {
+      this.connected = connected;
+    }
+
+    ExchangeClient proxy() {
+      return (ExchangeClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+          new Class<?>[]{ExchangeClient.class}, (p, method, args) -> {
+            switch (method.getName()) {
+              case "isConnected":
+                return connected && !closed;
+              case "isWritable":
+                return true;
+              case "isClosed":
+                return closed;
+              case "close":
+                closed = true;
+                return null;
+              case "request":
+                if (!connected) {
+                  throw new RemotingException((NetChannel) null, "not connected");
+                }
+                CompletableFuture<Object> future = new CompletableFuture<>();
+                futures.add(future);
+                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ResponseFuture.class}, (f, m, a) -> future);
+              default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+          });
+    }
+  }
+
+  private static RpcInvocation asyncSayHello(String name) {
+    RpcInvocation inv = new RpcInvocation();
+    inv.setMethodName("sayHello");
+    inv.setParameterTypes(new Class<?>[]{String.class});
+    inv.setArguments(new Object[]{name});
+    inv.setAttachment(Constants.ASYNC_KEY, "true");
+    return inv;
+  }
+}
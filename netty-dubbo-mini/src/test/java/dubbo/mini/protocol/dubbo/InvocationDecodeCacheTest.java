@@ -0,0 +1,32 @@
+package dubbo.mini.protocol.dubbo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.support.MockChannel;
+import org.junit.jupiter.api.Test;
+
+class InvocationDecodeCacheTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null);
+
+  @Test
+  void cachedPerChannel() throws Exception {
+    MockChannel channel = new MockChannel(URL);
+    InvocationDecodeCache cache = InvocationDecodeCache.get(channel);
+    assertSame(cache, InvocationDecodeCache.get(channel));
+    assertNotSame(cache, InvocationDecodeCache.get(new MockChannel(URL)));
+
+    Class<?>[] types = cache.getParameterTypes("Ljava/lang/String;I");
+    assertArrayEquals(new Class<?>[]{String.class, int.class}, types);
+    assertSame(DubboCodec.EMPTY_CLASS_ARRAY, cache.getParameterTypes(""));
+
+    // 每次拿到的是拷贝，修改不会污染缓存
+    types[0] = Object.class;
+    Class<?>[] again = cache.getParameterTypes(new String("Ljava/lang/String;I"));
+    assertNotSame(types, again);
+    assertArrayEquals(new Class<?>[]{String.class, int.class}, again);
+  }
+}
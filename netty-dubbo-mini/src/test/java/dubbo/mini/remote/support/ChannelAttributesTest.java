@@ -0,0 +1,54 @@
+package dubbo.mini.remote.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.remote.ChannelAttributeKey;
+import org.junit.jupiter.api.Test;
+
+class ChannelAttributesTest {
+
+  private static final ChannelAttributeKey<Integer> COUNT = ChannelAttributeKey
+      .valueOf("test.channel.attributes.count");
+
+  @Test
+  void typedAndNamedShareSlot() {
+    assertSame(COUNT, ChannelAttributeKey.valueOf("test.channel.attributes.count"));
+
+    ChannelAttributes attributes = new ChannelAttributes();
+    attributes.set(COUNT, 1);
+    assertEquals(1, attributes.get(COUNT));
+    assertEquals(1, attributes.get(COUNT.name()));
+
+    attributes.set(COUNT.name(), 2);
+    assertEquals(2, attributes.get(COUNT));
+    attributes.remove(COUNT.name());
+    assertNull(attributes.get(COUNT));
+    assertFalse(attributes.contains(COUNT.name()));
+
+    // 未注册的名字仍然走 map
+    attributes.set("test.channel.attributes.plain", "v");
+    assertTrue(attributes.contains("test.channel.attributes.plain"));
+    attributes.set("test.channel.attributes.plain", null);
+    assertFalse(attributes.contains("test.channel.attributes.plain"));
+  }
+
+  @Test
+  void growForKeysRegisteredLater() {
+    ChannelAttributes attributes = new ChannelAttributes();
+    ChannelAttributeKey<String> late = ChannelAttributeKey
+        .valueOf("test.channel.attributes.late." + System.nanoTime());
+    assertNull(attributes.get(late));
+    attributes.set(COUNT, 3);
+    attributes.set(late, "late");
+    assertEquals("late", attributes.get(late));
+    assertEquals(3, attributes.get(COUNT));
+
+    attributes.clear();
+    assertNull(attributes.get(late));
+    assertNull(attributes.get(COUNT));
+  }
+}
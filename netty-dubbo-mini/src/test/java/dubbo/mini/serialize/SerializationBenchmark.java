@@ -0,0 +1,162 @@
+package dubbo.mini.serialize;
+
+import dubbo.mini.codec.CodecSupport;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.io.UnsafeByteArrayInputStream;
+import dubbo.mini.common.io.UnsafeByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 对比 hessian2 和 kryo 序列化一个典型 DTO（基本类型、字符串、集合、嵌套对象）的吞吐量，
+ * 每组参数开始时在日志里记录序列化后的字节数。不参与单元测试。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(SerializationBenchmark.class);
+
+  @Param({"hessian2", "kryo"})
+  private String serialization;
+
+  @Param({"threadlocal", "pooled"})
+  private String kryoFactory;
+
+  private NetURL url;
+
+  private Serialization impl;
+
+  private User user;
+
+  private UnsafeByteArrayOutputStream bos;
+
+  private byte[] bytes;
+
+  static {
+    SerializableClassRegistry.registerClass(User.class, 100, null);
+    SerializableClassRegistry.registerClass(Address.class, 101, null);
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    url = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+        .addParameter(Constants.SERIALIZATION_KEY, serialization)
+        .addParameter(Constants.KRYO_FACTORY_KEY, kryoFactory);
+    impl = CodecSupport.getSerialization(url);
+    user = User.sample();
+    bos = new UnsafeByteArrayOutputStream(1024);
+    serialize();
+    bytes = bos.toByteArray();
+    logger.info(serialization + "/" + kryoFactory + " serialized size: " + bytes.length
+        + " bytes");
+  }
+
+  @Benchmark
+  public int serialize() throws IOException {
+    bos.reset();
+    write(impl, url, bos, user);
+    return bos.size();
+  }
+
+  @Benchmark
+  public Object deserialize() throws IOException, ClassNotFoundException {
+    ObjectInput in = impl.deserialize(url, new UnsafeByteArrayInputStream(bytes));
+    try {
+      return in.readObject(User.class);
+    } finally {
+      if (in instanceof Cleanable) {
+        ((Cleanable) in).cleanup();
+      }
+    }
+  }
+
+  private static void write(Serialization impl, NetURL url, UnsafeByteArrayOutputStream bos,
+      Object value) throws IOException {
+    ObjectOutput out = impl.serialize(url, bos);
+    out.writeObject(value);
+    out.flushBuffer();
+    if (out instanceof Cleanable) {
+      ((Cleanable) out).cleanup();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    runBenchmark();
+  }
+
+  private static void runBenchmark() throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(SerializationBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  public static class User implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long id;
+    private String name;
+    private int age;
+    private boolean vip;
+    private double balance;
+    private Date created;
+    private List<String> tags;
+    private Address address;
+
+    static User sample() {
+      User user = new User();
+      user.id = 10086L;
+      user.name = "dubbo-mini-user";
+      user.age = 30;
+      user.vip = true;
+      user.balance = 1234.56;
+      user.created = new Date(1600000000000L);
+      user.tags = new ArrayList<>();
+      user.tags.add("netty");
+      user.tags.add("rpc");
+      user.tags.add("serialization");
+      user.address = new Address();
+      user.address.city = "Hangzhou";
+      user.address.street = "Wensan Road 90";
+      user.address.zip = 310000;
+      return user;
+    }
+  }
+
+  public static class Address implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String city;
+    private String street;
+    private int zip;
+  }
+}
@@ -0,0 +1,63 @@
+package dubbo.mini.serialize.hessian2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.io.UnsafeByteArrayInputStream;
+import dubbo.mini.common.io.UnsafeByteArrayOutputStream;
+import dubbo.mini.serialize.Cleanable;
+import dubbo.mini.serialize.ObjectInput;
+import dubbo.mini.serialize.ObjectOutput;
+import java.io.Serializable;
+import org.junit.jupiter.api.Test;
+
+class Hessian2SerializationTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null);
+
+  @Test
+  void reusedOutputStartsWithCleanClassDefinitions() throws Exception {
+    assertTrue(ReusableHessian2Output.isReusable());
+    Hessian2Serialization serialization = new Hessian2Serialization();
+    // 每条消息独立解码，复用的 Hessian2Output 不能带上一条消息的类定义引用
+    for (int i = 0; i < 3; i++) {
+      UnsafeByteArrayOutputStream bos = new UnsafeByteArrayOutputStream();
+      ObjectOutput out = serialization.serialize(URL, bos);
+      out.writeObject(new Point(i, -i));
+      out.flushBuffer();
+      ((Cleanable) out).cleanup();
+
+      ObjectInput in = serialization.deserialize(URL,
+          new UnsafeByteArrayInputStream(bos.toByteArray()));
+      Point p = (Point) in.readObject();
+      assertEquals(i, p.x);
+      assertEquals(-i, p.y);
+    }
+  }
+
+  @Test
+  void nestedBorrowGetsSeparateOutput() throws Exception {
+    UnsafeByteArrayOutputStream outer = new UnsafeByteArrayOutputStream();
+    UnsafeByteArrayOutputStream inner = new UnsafeByteArrayOutputStream();
+    ReusableHessian2Output first = ReusableHessian2Output.borrow(outer);
+    ReusableHessian2Output second = ReusableHessian2Output.borrow(inner);
+    assertNotSame(first, second);
+    second.recycle();
+    first.recycle();
+  }
+
+  static class Point implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    int x;
+    int y;
+
+    Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package dubbo.mini.serialize.kryo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dubbo.mini.buffer.NettyBackedChannelBuffer;
+import dubbo.mini.codec.CodecSupport;
+import dubbo.mini.codec.ExchangeCodec;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.io.UnsafeByteArrayInputStream;
+import dubbo.mini.common.io.UnsafeByteArrayOutputStream;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.serialize.Cleanable;
+import dubbo.mini.serialize.ObjectInput;
+import dubbo.mini.serialize.ObjectOutput;
+import dubbo.mini.serialize.Serialization;
+import dubbo.mini.support.MockChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class KryoSerializationTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+      .addParameter(Constants.SERIALIZATION_KEY, "kryo");
+
+  @Test
+  void roundTripWithBothFactories() throws Exception {
+    for (String factory : new String[]{KryoUtils.THREAD_LOCAL, KryoUtils.POOLED}) {
+      NetURL url = URL.addParameter(Constants.KRYO_FACTORY_KEY, factory);
+      Serialization serialization = CodecSupport.getSerialization(url);
+      assertSame(KryoSerialization.class, serialization.getClass());
+
+      Map<String, String> map = new HashMap<>();
+      map.put("k", "v");
+      // 重复两次，第二次使用归还的实例
+      for (int i = 0; i < 2; i++) {
+        UnsafeByteArrayOutputStream bos = new UnsafeByteArrayOutputStream();
+        ObjectOutput out = serialization.serialize(url, bos);
+        out.writeUTF("sayHello");
+        out.writeInt(42);
+        out.writeBytes(new byte[]{1, 2, 3});
+        out.writeBytes(null);
+        out.writeObject(map);
+        out.writeObject(Arrays.asList("a", "b"));
+        out.flushBuffer();
+        ((Cleanable) out).cleanup();
+
+        ObjectInput in = serialization.deserialize(url,
+            new UnsafeByteArrayInputStream(bos.toByteArray()));
+        assertEquals("sayHello", in.readUTF(), factory);
+        assertEquals(42, in.readInt());
+        assertArrayEquals(new byte[]{1, 2, 3}, in.readBytes());
+        assertNull(in.readBytes());
+        assertEquals(map, in.readObject(Map.class));
+        assertEquals(Arrays.asList("a", "b"), in.readObject());
+        ((Cleanable) in).cleanup();
+      }
+    }
+  }
+
+  @Test
+  void encodeAndDecodeRequest() throws Exception {
+    ExchangeCodec codec = new ExchangeCodec();
+    MockChannel channel = new MockChannel(URL);
+    Request request = new Request(7L);
+    request.setData("payload");
+
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      NettyBackedChannelBuffer buffer = new NettyBackedChannelBuffer(buf);
+      codec.encode(channel, buffer, request);
+      // 低 5 位是序列化 id
+      assertEquals(KryoSerialization.ID, buf.getByte(2) & 0x1f);
+
+      Request decoded = (Request) codec.decode(channel, buffer);
+      assertEquals(7L, decoded.getId());
+      assertEquals("payload", decoded.getData());
+    } finally {
+      buf.release();
+    }
+  }
+}
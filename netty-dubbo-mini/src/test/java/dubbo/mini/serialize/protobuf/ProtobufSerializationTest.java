@@ -0,0 +1,144 @@
+package dubbo.mini.serialize.protobuf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.StringValue;
+import com.google.protobuf.Timestamp;
+import dubbo.mini.codec.CodecSupport;
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.io.UnsafeByteArrayInputStream;
+import dubbo.mini.common.io.UnsafeByteArrayOutputStream;
+import dubbo.mini.serialize.Cleanable;
+import dubbo.mini.serialize.ObjectInput;
+import dubbo.mini.serialize.ObjectOutput;
+import dubbo.mini.serialize.Serialization;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ProtobufSerializationTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null)
+      .addParameter(Constants.SERIALIZATION_KEY, "protobuf");
+
+  @Test
+  void protobufMessagesAndFallback() throws Exception {
+    Serialization serialization = CodecSupport.getSerialization(URL);
+    assertEquals(ProtobufSerialization.ID, serialization.getContentTypeId());
+
+    Timestamp timestamp = Timestamp.newBuilder().setSeconds(1600000000L).setNanos(42).build();
+    StringValue value = StringValue.newBuilder().setValue("hello").build();
+    Map<String, String> attachments = Collections.singletonMap("path", "demo");
+
+    UnsafeByteArrayOutputStream bos = new UnsafeByteArrayOutputStream();
+    ObjectOutput out = serialization.serialize(URL, bos);
+    out.writeUTF("sayHello");
+    out.writeUTF(null);
+    out.writeInt(-7);
+    out.writeLong(Long.MAX_VALUE);
+    out.writeBytes(new byte[]{1, 2});
+    out.writeObject(timestamp);
+    out.writeObject(value);
+    out.writeObject(null);
+    out.writeObject(attachments);
+    out.writeShort((short) 3);
+    out.flushBuffer();
+
+    ObjectInput in = serialization.deserialize(URL,
+        new UnsafeByteArrayInputStream(bos.toByteArray()));
+    assertEquals("sayHello", in.readUTF());
+    assertNull(in.readUTF());
+    assertEquals(-7, in.readInt());
+    assertEquals(Long.MAX_VALUE, in.readLong());
+    assertArrayEquals(new byte[]{1, 2}, in.readBytes());
+    assertEquals(timestamp, in.readObject(Timestamp.class));
+    assertEquals(value, in.readObject());
+    assertNull(in.readObject());
+    assertEquals(attachments, in.readObject(Map.class));
+    assertEquals(3, in.readShort());
+  }
+
+  @Test
+  void fallbackChunksDecodeIndependently() throws Exception {
+    Serialization serialization = CodecSupport.getSerialization(URL);
+    UnsafeByteArrayOutputStream bos = new UnsafeByteArrayOutputStream();
+    ObjectOutput out = serialization.serialize(URL, bos);
+    // 同一个类多次出现、不同类交错，每段的类定义都要能单独解出
+    out.writeObject(new Point(1, 2));
+    out.writeObject(new Label("a", new Point(3, 4)));
+    out.writeObject(new Point(5, 6));
+    out.writeObject(new Label("b", null));
+    out.flushBuffer();
+    ((Cleanable) out).cleanup();
+
+    ObjectInput in = serialization.deserialize(URL,
+        new UnsafeByteArrayInputStream(bos.toByteArray()));
+    assertEquals(new Point(1, 2), in.readObject(Point.class));
+    Label a = in.readObject(Label.class);
+    assertEquals("a", a.name);
+    assertEquals(new Point(3, 4), a.point);
+    assertEquals(new Point(5, 6), in.readObject());
+    Label b = (Label) in.readObject();
+    assertEquals("b", b.name);
+    assertNull(b.point);
+  }
+
+  static class Point implements Serializable {
+
+    int x;
+
+    int y;
+
+    Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Point && ((Point) o).x == x && ((Point) o).y == y;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * x + y;
+    }
+  }
+
+  static class Label implements Serializable {
+
+    String name;
+
+    Point point;
+
+    Label(String name, Point point) {
+      this.name = name;
+      this.point = point;
+    }
+  }
+
+  @Test
+  void rejectNonMessageWithoutInitializing() {
+    assertThrows(ClassNotFoundException.class,
+        () -> ProtobufUtils.getParser(Poison.class.getName()));
+    assertFalse(poisoned);
+  }
+
+  private static volatile boolean poisoned;
+
+  /**
+   * 不是 protobuf 消息，静态代码块不应被执行
+   */
+  static class Poison {
+
+    static {
+      poisoned = true;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package dubbo.mini.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dubbo.mini.common.Constants;
+import dubbo.mini.common.NetURL;
+import dubbo.mini.common.timer.HashedWheelTimer;
+import dubbo.mini.exchange.Request;
+import dubbo.mini.exchange.Response;
+import dubbo.mini.remote.RemotingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class DefaultFutureTest {
+
+  private static final NetURL URL = new NetURL("dubbo", "127.0.0.1", 20880, "", null);
+
+  @Test
+  void closeChannelOnlyFailsItsOwnFutures() throws Exception {
+    MockChannel a = new MockChannel(URL);
+    MockChannel b = new MockChannel(URL);
+    List<DefaultFuture> onA = new ArrayList<>();
+    List<DefaultFuture> onB = new ArrayList<>();
+    // 超过探测窗口，部分请求会进入 overflow
+    for (int i = 0; i < 2000; i++) {
+      onA.add(DefaultFuture.newFuture(a, new Request(), 60000));
+      onB.add(DefaultFuture.newFuture(b, new Request(), 60000));
+    }
+    assertTrue(DefaultFuture.hasFuture(a));
+
+    DefaultFuture.closeChannel(a);
+
+    assertFalse(DefaultFuture.hasFuture(a));
+    for (DefaultFuture future : onA) {
+      assertTrue(future.isDone());
+      assertThrows(RemotingException.class, future::get);
+    }
+    for (DefaultFuture future : onB) {
+      assertFalse(future.isDone());
+      assertSame(future, DefaultFuture.getFuture(b, future.getRequest().getId()));
+      Response response = new Response(future.getRequest().getId());
+      response.setResult("ok");
+      DefaultFuture.received(b, response);
+      assertEquals("ok", future.get());
+    }
+    assertFalse(DefaultFuture.hasFuture(b));
+    assertNull(DefaultFuture.getFuture(b, onB.get(0).getRequest().getId()));
+  }
+
+  @Test
+  void completedFuturesLeaveTheTimerWheel() throws Exception {
+    HashedWheelTimer timer = (HashedWheelTimer) DefaultFuture.TIME_OUT_TIMER;
+    MockChannel channel = new MockChannel(URL);
+    List<DefaultFuture> futures = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      futures.add(DefaultFuture.newFuture(channel, new Request(), 60000));
+    }
+    assertTrue(timer.pendingTimeouts() >= futures.size());
+    for (DefaultFuture future : futures) {
+      Response response = new Response(future.getRequest().getId());
+      response.setResult("ok");
+      DefaultFuture.received(channel, response);
+    }
+    // 取消的任务在下一个 tick 从时间轮移除，不用等到 60 秒超时
+    long deadline = System.currentTimeMillis() + 5000;
+    while (timer.pendingTimeouts() >= futures.size() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(timer.pendingTimeouts() < futures.size());
+  }
+
+  @Test
+  void completableFutureCompletesWithoutBlocking() throws Exception {
+    MockChannel channel = new MockChannel(URL);
+    DefaultFuture future = DefaultFuture.newFuture(channel, new Request(), 60000);
+    CompletableFuture<String> composed = future.<String>getCompletableFuture()
+        .thenApply(String::toUpperCase);
+    assertFalse(composed.isDone());
+
+    Response response = new Response(future.getRequest().getId());
+    response.setResult("ok");
+    DefaultFuture.received(channel, response);
+
+    assertEquals("OK", composed.getNow(null));
+  }
+
+  @Test
+  void timerShardsFallBackOnBadValues() {
+    assertEquals(4, DefaultFuture.parseTimerShards(" 4 "));
+    assertEquals(1, DefaultFuture.parseTimerShards("0"));
+    assertEquals(1, DefaultFuture.parseTimerShards("-3"));
+    assertEquals(Constants.DEFAULT_TIMEOUT_TIMER_SHARDS, DefaultFuture.parseTimerShards("four"));
+    assertEquals(Constants.DEFAULT_TIMEOUT_TIMER_SHARDS, DefaultFuture.parseTimerShards(null));
+  }
+}
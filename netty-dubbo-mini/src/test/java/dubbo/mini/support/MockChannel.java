@@ -0,0 +1,156 @@
+package dubbo.mini.support;
+
+import dubbo.mini.common.NetURL;
+import dubbo.mini.remote.ChannelAttributeKey;
+import dubbo.mini.remote.ChannelEventHandler;
+import dubbo.mini.remote.NetChannel;
+import dubbo.mini.remote.support.ChannelAttributes;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试用的 NetChannel，只记录 send 的消息，不做任何 IO。
+ */
+public class MockChannel implements NetChannel {
+
+  private final NetURL url;
+
+  private final ChannelAttributes attributes = new ChannelAttributes();
+
+  private final List<Object> sentObjects = new ArrayList<>();
+
+  private volatile boolean closed;
+
+  private volatile boolean writable = true;
+
+  private volatile long readTimestamp;
+
+  private volatile long writeTimestamp;
+
+  public MockChannel(NetURL url) {
+    this.url = url;
+  }
+
+  public List<Object> getSentObjects() {
+    return sentObjects;
+  }
+
+  public void setWritable(boolean writable) {
+    this.writable = writable;
+  }
+
+  @Override
+  public InetSocketAddress getRemoteAddress() {
+    return new InetSocketAddress("127.0.0.1", 20880);
+  }
+
+  @Override
+  public boolean isConnected() {
+    return !closed;
+  }
+
+  @Override
+  public boolean isWritable() {
+    return !closed && writable;
+  }
+
+  @Override
+  public long getReadTimestamp() {
+    return readTimestamp;
+  }
+
+  @Override
+  public void setReadTimestamp(long timestamp) {
+    this.readTimestamp = timestamp;
+  }
+
+  @Override
+  public long getWriteTimestamp() {
+    return writeTimestamp;
+  }
+
+  @Override
+  public void setWriteTimestamp(long timestamp) {
+    this.writeTimestamp = timestamp;
+  }
+
+  @Override
+  public boolean hasAttribute(String key) {
+    return attributes.contains(key);
+  }
+
+  @Override
+  public Object getAttribute(String key) {
+    return attributes.get(key);
+  }
+
+  @Override
+  public void setAttribute(String key, Object value) {
+    attributes.set(key, value);
+  }
+
+  @Override
+  public void removeAttribute(String key) {
+    attributes.remove(key);
+  }
+
+  @Override
+  public <T> T getAttribute(ChannelAttributeKey<T> key) {
+    return attributes.get(key);
+  }
+
+  @Override
+  public <T> void setAttribute(ChannelAttributeKey<T> key, T value) {
+    attributes.set(key, value);
+  }
+
+  @Override
+  public void removeAttribute(ChannelAttributeKey<?> key) {
+    attributes.remove(key);
+  }
+
+  @Override
+  public NetURL getUrl() {
+    return url;
+  }
+
+  @Override
+  public ChannelEventHandler getChannelHandler() {
+    return null;
+  }
+
+  @Override
+  public InetSocketAddress getLocalAddress() {
+    return new InetSocketAddress("127.0.0.1", 0);
+  }
+
+  @Override
+  public void send(Object message) {
+    send(message, false);
+  }
+
+  @Override
+  public synchronized void send(Object message, boolean sent) {
+    sentObjects.add(message);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+
+  @Override
+  public void close(int timeout) {
+    close();
+  }
+
+  @Override
+  public void startClose() {
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+}